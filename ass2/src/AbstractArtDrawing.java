@@ -1,7 +1,7 @@
 import biuoop.GUI;
 import biuoop.DrawSurface;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.awt.Color;
 
 /**
@@ -18,6 +18,22 @@ public class AbstractArtDrawing {
     //Lines constant variables.
     private static final int LINE_AMOUNT = 10;
     private static final Color NORMAL_LINE_COLOR = Color.BLACK, TRIANGLE_COLOR = Color.GREEN;
+    private final SplittableRandom random;
+
+    /**
+     * Default constructor, uses a randomly seeded generator.
+     */
+    public AbstractArtDrawing() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor with a given random generator, a generator with a fixed seed will always draw the same drawing.
+     * @param random - random generator for the lines.
+     */
+    public AbstractArtDrawing(SplittableRandom random) {
+        this.random = random;
+    }
 
     /**
      * Main function.
@@ -47,16 +63,15 @@ public class AbstractArtDrawing {
      * @return - an instance of a line made by 2 random generated points.
      */
     private Line generateRandomLine() {
-        Random rand = new Random();
         //Generate 2 random pairs of x,y values for the points.
-        double x1 = rand.nextDouble() * WIDTH, y1 = rand.nextDouble() * HEIGHT;
+        double x1 = this.random.nextDouble() * WIDTH, y1 = this.random.nextDouble() * HEIGHT;
         Point startPoint = new Point(x1, y1);
-        double x2 = rand.nextDouble() * WIDTH, y2 = rand.nextDouble() * HEIGHT;
+        double x2 = this.random.nextDouble() * WIDTH, y2 = this.random.nextDouble() * HEIGHT;
         Point endPoint = new Point(x2, y2);
         //Make sure the points are different, so it would be a line.
         while (startPoint.equals(endPoint)) {
-            x2 = rand.nextDouble() * WIDTH;
-            y2 = rand.nextDouble() * HEIGHT;
+            x2 = this.random.nextDouble() * WIDTH;
+            y2 = this.random.nextDouble() * HEIGHT;
             endPoint = new Point(x2, y2);
         }
         return new Line(startPoint, endPoint);
@@ -4,7 +4,7 @@ import biuoop.GUI;
 import biuoop.Sleeper;
 
 import java.awt.Color;
-import java.util.Random;
+import java.util.SplittableRandom;
 /**
  * Animation of several balls of different sizes and different speeds.
  */
@@ -13,6 +13,22 @@ public class MultipleBouncingBallsAnimation {
     private static final int WIDTH = 500, HEIGHT = 500;
     //Screen update interval in milliseconds - default by BIU is 50.
     private static final int UPDATE_INTERVAL = 50;
+    private final SplittableRandom random;
+
+    /**
+     * Default constructor, uses a randomly seeded generator.
+     */
+    public MultipleBouncingBallsAnimation() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor with a given random generator, a generator with a fixed seed will always draw the same balls.
+     * @param random - random generator for the balls.
+     */
+    public MultipleBouncingBallsAnimation(SplittableRandom random) {
+        this.random = random;
+    }
 
     /**
      * Main function.
@@ -82,7 +98,7 @@ public class MultipleBouncingBallsAnimation {
             double y = randomDouble(ballsSizes[i], HEIGHT - ballsSizes[i]);
             //As a default use black balls and generate random velocity for the ball based on it's size.
             ballsArray[i] = new Ball(new Point(x, y), ballsSizes[i], Color.BLACK,
-                    Velocity.generateRandomVelocity(ballsSizes[i]));
+                    Velocity.generateRandomVelocity(ballsSizes[i], this.random));
         }
         return ballsArray;
     }
@@ -94,7 +110,6 @@ public class MultipleBouncingBallsAnimation {
      * @return - the generated double.
      */
     private double randomDouble(double min, double max) {
-        Random rand = new Random();
-        return min + (max - min) * rand.nextDouble();
+        return min + (max - min) * this.random.nextDouble();
     }
 }
\ No newline at end of file
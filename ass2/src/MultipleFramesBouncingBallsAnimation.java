@@ -4,7 +4,7 @@ import biuoop.GUI;
 import biuoop.Sleeper;
 
 import java.awt.Color;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Task 3.4 - animate half the balls in the gray rectangle while the other half are outside the rectangle.
@@ -20,6 +20,22 @@ public class MultipleFramesBouncingBallsAnimation {
     private static final int MAX_ATTEMPTS = 500;
     //Screen update interval in milliseconds - default by BIU is 50.
     private static final int UPDATE_INTERVAL = 50;
+    private final SplittableRandom random;
+
+    /**
+     * Default constructor, uses a randomly seeded generator.
+     */
+    public MultipleFramesBouncingBallsAnimation() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor with a given random generator, a generator with a fixed seed will always draw the same balls.
+     * @param random - random generator for the balls.
+     */
+    public MultipleFramesBouncingBallsAnimation(SplittableRandom random) {
+        this.random = random;
+    }
 
     /**
      * Main function.
@@ -92,7 +108,7 @@ public class MultipleFramesBouncingBallsAnimation {
             double yCenter = new Line(X_GRAY, Y_GRAY, X_GRAY, Y_GRAY + HEIGHT_GRAY).middle().getY();
             Point p = new Point(xCenter, yCenter);
             ballsArray[i] = new Ball(p, ballsSizes[i], generateRandomColor(),
-                    Velocity.generateRandomVelocity(ballsSizes[i]));
+                    Velocity.generateRandomVelocity(ballsSizes[i], this.random));
         }
         //Second half are outside both rectangles.
         for (int i = halfBallsIndex; i < ballsSizes.length; i++) {
@@ -101,7 +117,7 @@ public class MultipleFramesBouncingBallsAnimation {
                 return null;
             }
             ballsArray[i] = new Ball(p, ballsSizes[i], generateRandomColor(),
-                    Velocity.generateRandomVelocity(ballsSizes[i]));
+                    Velocity.generateRandomVelocity(ballsSizes[i], this.random));
         }
         return ballsArray;
     }
@@ -134,11 +150,10 @@ public class MultipleFramesBouncingBallsAnimation {
      * @return - random color.
      */
     private Color generateRandomColor() {
-        Random random = new Random();
         // Generates a value between 0 and 255 for red, green and blue.
-        int red = random.nextInt(256);
-        int green = random.nextInt(256);
-        int blue = random.nextInt(256);
+        int red = this.random.nextInt(256);
+        int green = this.random.nextInt(256);
+        int blue = this.random.nextInt(256);
         return new Color(red, green, blue);
     }
 
@@ -177,9 +192,8 @@ public class MultipleFramesBouncingBallsAnimation {
      * @param max - max value of the double.
      * @return - the generated double.
      */
-    private static double randomDouble(double min, double max) {
-        Random rand = new Random();
-        return min + (max - min) * rand.nextDouble();
+    private double randomDouble(double min, double max) {
+        return min + (max - min) * this.random.nextDouble();
     }
 
     /**
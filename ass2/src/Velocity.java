@@ -1,5 +1,5 @@
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Class to represent velocity.
@@ -80,10 +80,10 @@ public class Velocity {
      * The bigger the ball the slower it is. Max and min speed are constant and can be changed, all balls above size of
      * 50 will get the min speed.
      * @param size - size of the ball.
+     * @param rnd  - random generator to use, owned by the caller so a run can be reproduced from its seed.
      * @return - new velocity created by angle and speed.
      */
-    public static Velocity generateRandomVelocity(int size) {
-        Random rnd = new Random();
+    public static Velocity generateRandomVelocity(int size, SplittableRandom rnd) {
         double angle = 360 * rnd.nextDouble();
         double speed;
         if (size >= 50) {
@@ -0,0 +1,159 @@
+package bench;
+
+import collision.Collidable;
+import collision.UniformGridBroadPhase;
+import game.Block;
+import game.GameEnvironment;
+import geometry.Ball;
+import geometry.Line;
+import geometry.Point;
+import geometry.Rectangle;
+import geometry.SegmentHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import physics.Velocity;
+import util.Constants;
+
+import java.awt.Color;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the collision queries of the game environment and of a ball's step, for different amounts of
+ * collidables. The collidables are blocks the size of a brick laid out in a grid inside four closed bounds, the world
+ * grows with the amount of blocks so the density stays the same as in a game.
+ * @author Yuval Anteby
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final double BOUNDS = 20, BLOCK_WIDTH = 40, BLOCK_HEIGHT = 20;
+    private static final int RADIUS = 5;
+
+    @Param({"10", "1000", "100000"})
+    private int collidables;
+
+    private final SegmentHit hit = new SegmentHit();
+    private GameEnvironment environment;
+    private double[] segments;
+    private Line[] lines;
+    private Ball ball;
+    private int next;
+
+    /**
+     * Build the environment and the queried segments, the same seed is used on every run.
+     */
+    @Setup
+    public void setup() {
+        //Every block covers a quarter of its cell, so a ball always has room to move between them.
+        double cellWidth = 2 * BLOCK_WIDTH, cellHeight = 2 * BLOCK_HEIGHT;
+        int columns = (int) Math.ceil(Math.sqrt(this.collidables * cellHeight / cellWidth));
+        int rows = (int) Math.ceil(this.collidables / (double) columns);
+        double width = columns * cellWidth + 2 * BOUNDS;
+        double height = rows * cellHeight + 2 * BOUNDS;
+        this.environment = new GameEnvironment();
+        this.environment.setBroadPhase(new UniformGridBroadPhase(0, 0, width, height,
+                Constants.GRID_CELL_SIZE));
+        addBlock(0, 0, width, BOUNDS);
+        addBlock(0, height - BOUNDS, width, BOUNDS);
+        addBlock(0, 0, BOUNDS, height);
+        addBlock(width - BOUNDS, 0, BOUNDS, height);
+        for (int i = 0; i < this.collidables; i++) {
+            double x = BOUNDS + (i % columns) * cellWidth, y = BOUNDS + (i / columns) * cellHeight;
+            addBlock(x + BLOCK_WIDTH / 2, y + BLOCK_HEIGHT / 2, BLOCK_WIDTH, BLOCK_HEIGHT);
+        }
+        //Segments as long as the steps of a fast ball.
+        SplittableRandom random = new SplittableRandom(SAMPLES);
+        this.segments = new double[SAMPLES * 4];
+        this.lines = new Line[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            double x = random.nextDouble(BOUNDS, width - BOUNDS);
+            double y = random.nextDouble(BOUNDS, height - BOUNDS);
+            double dx = random.nextDouble(-10, 10), dy = random.nextDouble(-10, 10);
+            this.segments[i * 4] = x;
+            this.segments[i * 4 + 1] = y;
+            this.segments[i * 4 + 2] = x + dx;
+            this.segments[i * 4 + 3] = y + dy;
+            this.lines[i] = new Line(x, y, x + dx, y + dy);
+        }
+        //The ball starts where the gaps between the first four blocks cross.
+        this.ball = new Ball(new Point(BOUNDS + cellWidth, BOUNDS + cellHeight), RADIUS, Color.WHITE,
+                Velocity.fromAngleAndSpeed(30, 8));
+        this.ball.setGameEnvironment(this.environment);
+    }
+
+    /**
+     * Closest collision of a segment, using the object creating method.
+     * @return - the collision information.
+     */
+    @Benchmark
+    public Object closestCollisionLine() {
+        return this.environment.getClosestCollision(this.lines[nextIndex()]);
+    }
+
+    /**
+     * Closest collision of a segment, without creating objects.
+     * @return - the collidable that was hit.
+     */
+    @Benchmark
+    public Collidable closestCollisionSegment() {
+        int i = nextIndex() * 4;
+        return this.environment.getClosestCollision(this.segments[i], this.segments[i + 1], this.segments[i + 2],
+                this.segments[i + 3], this.hit);
+    }
+
+    /**
+     * Closest collision of a moving circle.
+     * @return - the collidable that was hit.
+     */
+    @Benchmark
+    public Collidable closestCollisionCircle() {
+        int i = nextIndex() * 4;
+        return this.environment.getClosestCollision(this.segments[i], this.segments[i + 1], this.segments[i + 2],
+                this.segments[i + 3], RADIUS, this.hit);
+    }
+
+    /**
+     * A single step of a ball bouncing between the blocks, the bounds keep it in the world forever.
+     * @return - the ball, returned so the step isn't removed as dead code.
+     */
+    @Benchmark
+    public Ball ballMoveOneStep() {
+        this.ball.moveOneStep();
+        return this.ball;
+    }
+
+    /**
+     * Add a block to the environment.
+     * @param x      - x value of the upper left corner.
+     * @param y      - y value of the upper left corner.
+     * @param width  - width of the block.
+     * @param height - height of the block.
+     */
+    private void addBlock(double x, double y, double width, double height) {
+        this.environment.addCollidable(new Block(new Rectangle(new Point(x, y), width, height), Color.GRAY));
+    }
+
+    /**
+     * Advance to the next sample.
+     * @return - index of the sample.
+     */
+    private int nextIndex() {
+        this.next = (this.next + 1) & (SAMPLES - 1);
+        return this.next;
+    }
+}
@@ -0,0 +1,134 @@
+package bench;
+
+import geometry.Line;
+import geometry.Point;
+import geometry.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the line and rectangle intersection methods and of the accessors used in hot loops.
+ * Every call uses the next pair of pre-generated shapes, so the branches taken vary like they do in a game.
+ * The accessors are expected to report no allocation (gc.alloc.rate.norm of 0) under the GC profiler.
+ * @author Yuval Anteby
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+    //Power of two so the next index is found with a mask.
+    private static final int SAMPLES = 1024;
+    private static final double WIDTH = 800, HEIGHT = 600;
+
+    private Line[] lines;
+    private Line[] others;
+    private Rectangle[] rectangles;
+    private int next;
+
+    /**
+     * Generate the shapes, the same seed is used on every run.
+     */
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(SAMPLES);
+        this.lines = new Line[SAMPLES];
+        this.others = new Line[SAMPLES];
+        this.rectangles = new Rectangle[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            this.lines[i] = randomLine(random);
+            this.others[i] = randomLine(random);
+            Point upperLeft = new Point(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT);
+            this.rectangles[i] = new Rectangle(upperLeft, 10 + random.nextDouble() * 200,
+                    10 + random.nextDouble() * 200);
+        }
+    }
+
+    /**
+     * Intersection point of two segments.
+     * @return - the intersection point, returned so the call isn't removed as dead code.
+     */
+    @Benchmark
+    public Point lineIntersectionWith() {
+        int i = nextIndex();
+        return this.lines[i].intersectionWith(this.others[i]);
+    }
+
+    /**
+     * Closest intersection of a segment with the sides of a rectangle.
+     * @return - the closest intersection point.
+     */
+    @Benchmark
+    public Point lineClosestIntersectionToStartOfLine() {
+        int i = nextIndex();
+        return this.lines[i].closestIntersectionToStartOfLine(this.rectangles[i]);
+    }
+
+    /**
+     * Every intersection of a segment with the sides of a rectangle.
+     * @return - the intersection points.
+     */
+    @Benchmark
+    public List<Point> rectangleIntersectionPoints() {
+        int i = nextIndex();
+        return this.rectangles[i].intersectionPoints(this.lines[i]);
+    }
+
+    /**
+     * End points of a segment, the points are passed to the black hole so they can't be scalarized away.
+     * @param blackhole - consumer of the results.
+     */
+    @Benchmark
+    public void lineEndPoints(Blackhole blackhole) {
+        int i = nextIndex();
+        blackhole.consume(this.lines[i].start());
+        blackhole.consume(this.lines[i].end());
+    }
+
+    /**
+     * Corners of a rectangle.
+     * @param blackhole - consumer of the results.
+     */
+    @Benchmark
+    public void rectangleCorners(Blackhole blackhole) {
+        int i = nextIndex();
+        blackhole.consume(this.rectangles[i].getUpperLeft());
+        blackhole.consume(this.rectangles[i].getUpperRight());
+        blackhole.consume(this.rectangles[i].getBottomRight());
+        blackhole.consume(this.rectangles[i].getBottomLeft());
+    }
+
+    /**
+     * Advance to the next sample.
+     * @return - index of the sample.
+     */
+    private int nextIndex() {
+        this.next = (this.next + 1) & (SAMPLES - 1);
+        return this.next;
+    }
+
+    /**
+     * Create a segment of a random length anywhere in the world.
+     * @param random - random generator.
+     * @return - new segment.
+     */
+    private static Line randomLine(SplittableRandom random) {
+        double x = random.nextDouble() * WIDTH, y = random.nextDouble() * HEIGHT;
+        return new Line(x, y, x + random.nextDouble(-100, 100), y + random.nextDouble(-100, 100));
+    }
+}
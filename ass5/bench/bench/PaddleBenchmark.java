@@ -0,0 +1,83 @@
+package bench;
+
+import game.Block;
+import game.GameEnvironment;
+import game.Paddle;
+import game.PaddleZones;
+import geometry.Point;
+import geometry.Rectangle;
+import input.InputSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import physics.Velocity;
+import util.Constants;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a ball hitting the paddle, spread over the paddle's top and sides, for different amounts of zones.
+ * @author Yuval Anteby
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaddleBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final double LEFT = 100, TOP = 500;
+
+    @Param({"3", "5", "15"})
+    private int zones;
+
+    private final Velocity velocity = new Velocity();
+    private Paddle paddle;
+    private Point[] points;
+    private int next;
+
+    /**
+     * Build the paddle and the hit points, the same seed is used on every run.
+     */
+    @Setup
+    public void setup() {
+        Rectangle shape = new Rectangle(new Point(LEFT, TOP), Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT);
+        this.paddle = new Paddle(new Block(shape, Constants.PADDLE_COLOR), () -> InputSource.NONE,
+                Constants.GUI_WIDTH, new GameEnvironment());
+        this.paddle.setZones(PaddleZones.of(this.zones));
+        //Most hits land on the top, the rest on the sides.
+        SplittableRandom random = new SplittableRandom(SAMPLES);
+        this.points = new Point[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            if (i % 8 == 0) {
+                double x = random.nextBoolean() ? LEFT : LEFT + Constants.PADDLE_WIDTH;
+                this.points[i] = new Point(x, TOP + random.nextDouble(Constants.PADDLE_HEIGHT));
+            } else {
+                this.points[i] = new Point(LEFT + random.nextDouble(Constants.PADDLE_WIDTH), TOP);
+            }
+        }
+    }
+
+    /**
+     * A single hit of a falling ball on the paddle.
+     * @return - the new velocity of the ball.
+     */
+    @Benchmark
+    public Velocity hit() {
+        this.velocity.setDx(3);
+        this.velocity.setDy(4);
+        Point point = this.points[this.next];
+        this.next = (this.next + 1) % SAMPLES;
+        return this.paddle.hit(null, point, this.velocity);
+    }
+}
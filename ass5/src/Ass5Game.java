@@ -1,17 +1,95 @@
-
 import game.Game;
+import game.GameConfig;
+import level.BinaryLevelWriter;
+import level.TextLevelReader;
+import metrics.CsvMetricsSink;
+import metrics.JmxMetricsSink;
+import replay.ReplayLog;
+import replay.ReplayPlayer;
+import simulation.ParallelRunner;
+import util.RandomSource;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Class containing the main function to initialize and start the game.
  * @author Yuval Anteby 
  */
 public class Ass5Game {
+    //Default limit for headless games, since the AI might never lose or clear the level.
+    private static final long HEADLESS_MAX_TICKS = 1_000_000;
+    //Default limit for every game of a batch.
+    private static final long BATCH_MAX_TICKS = 100_000;
+
     /**
      * Main function.
-     * @param args - not used.
+     * Running with "--headless [max ticks]" plays the game without a window, using a simple AI for the paddle, and
+     * reports the simulation rate.
+     * Running with "--batch games [max ticks] [seed]" plays many headless games on every core and prints a summary of
+     * the results, the random streams of the games are split off the given seed so the whole batch can be reproduced.
+     * A single game also accepts "--jmx" to expose its metrics as a JMX bean and "--csv path" to write them to a
+     * CSV file when it ends, "--parallel threads" to look for the balls' collisions on several threads and
+     * "--level path [index]" to play the levels of a level file starting at the given index, or "--levels amount" to
+     * play several generated levels, "--zones amount" splits the paddle into 3 to 15 zones and "--sample-input rate"
+     * samples the keyboard that many times per second on a thread of its own (0 reads it on every tick).
+     * Running with "--convert levels.txt pack.bin" converts levels from the text format to a binary level pack.
+     * A game also accepts "--record path" to record its input into a replay log, with a snapshot of the game every
+     * "--snapshots ticks". Running with "--replay path [tick]" plays a replay log headless from the given tick, a
+     * level file of the recorded game must be given again with "--level".
+     * @param args - optional "--headless", "--batch", "--replay" or "--convert" flag followed by its values.
+     * @throws IOException - if a level file can't be converted or a replay log can't be read.
      */
-    public static void main(String[] args) {
-       Game game = new Game();
+    public static void main(String[] args) throws IOException {
+       if (args.length > 2 && args[0].equals("--convert")) {
+           BinaryLevelWriter.write(Paths.get(args[2]), TextLevelReader.read(Paths.get(args[1])));
+           return;
+       }
+       if (args.length > 1 && args[0].equals("--batch")) {
+           long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : BATCH_MAX_TICKS;
+           RandomSource source = new RandomSource(args.length > 3 ? Long.parseLong(args[3]) : 0);
+           System.out.println(new ParallelRunner().run(source, Integer.parseInt(args[1]), maxTicks));
+           return;
+       }
+       GameConfig config = new GameConfig();
+       if (args.length > 0 && args[0].equals("--headless")) {
+           config.setHeadless(true);
+           config.setMaxTicks(args.length > 1 && !args[1].startsWith("--")
+                   ? Long.parseLong(args[1]) : HEADLESS_MAX_TICKS);
+       }
+       for (int i = 0; i < args.length; i++) {
+           if (args[i].equals("--jmx")) {
+               config.addMetricsSink(new JmxMetricsSink("game"));
+           } else if (args[i].equals("--csv") && i + 1 < args.length) {
+               config.addMetricsSink(new CsvMetricsSink(Paths.get(args[++i])));
+           } else if (args[i].equals("--parallel") && i + 1 < args.length) {
+               config.setParallelism(Integer.parseInt(args[++i]));
+           } else if (args[i].equals("--levels") && i + 1 < args.length) {
+               config.setLevelsAmount(Integer.parseInt(args[++i]));
+           } else if (args[i].equals("--record") && i + 1 < args.length) {
+               config.setRecordFile(Paths.get(args[++i]));
+           } else if (args[i].equals("--sample-input") && i + 1 < args.length) {
+               config.setInputSampleRate(Integer.parseInt(args[++i]));
+           } else if (args[i].equals("--zones") && i + 1 < args.length) {
+               config.setPaddleZones(Integer.parseInt(args[++i]));
+           } else if (args[i].equals("--snapshots") && i + 1 < args.length) {
+               config.setSnapshotInterval(Integer.parseInt(args[++i]));
+           } else if (args[i].equals("--level") && i + 1 < args.length) {
+               config.setLevelFile(Paths.get(args[++i]));
+               if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                   config.setLevelIndex(Integer.parseInt(args[++i]));
+               }
+           }
+       }
+       if (args.length > 1 && args[0].equals("--replay")) {
+           ReplayPlayer player = new ReplayPlayer(ReplayLog.read(Paths.get(args[1])), config);
+           Game game = player.seek(args.length > 2 && !args[2].startsWith("--") ? Long.parseLong(args[2]) : 0);
+           game.run();
+           System.out.printf("Replay ended at tick %d with score %d, %d blocks and %d balls left.%n",
+                   game.getTickCount(), game.getScore(), game.getRemainingBlocks(), game.getRemainingBalls());
+           return;
+       }
+       Game game = new Game(config);
        game.initialize();
        game.run();
     }
@@ -0,0 +1,51 @@
+package collision;
+
+import java.util.List;
+
+/**
+ * Interface for the broad phase of the collision detection.
+ * A broad phase keeps track of the collidable objects and narrows down which of them might be hit by a trajectory,
+ * so the exact intersection calculation only runs on a few candidates.
+ * @author Yuval Anteby
+ */
+public interface BroadPhase {
+
+    /**
+     * Start tracking a new collidable object.
+     * @param c - collidable to be added.
+     */
+    void add(Collidable c);
+
+    /**
+     * Stop tracking a collidable object.
+     * @param c - collidable to be removed.
+     */
+    void remove(Collidable c);
+
+    /**
+     * Notify the broad phase that the collision rectangle of a collidable object has moved (E.G: the paddle).
+     * @param c - collidable that moved.
+     */
+    void update(Collidable c);
+
+    /**
+     * Find every collidable object that might be within a distance from the segment from (x1, y1) to (x2, y2).
+     * Candidates are returned in the order they were added, so ties are resolved the same way by every strategy.
+     * Queries may be made from several threads at once, as long as no collidable is added, removed or updated.
+     * @param x1         - x value of the start of the segment.
+     * @param y1         - y value of the start of the segment.
+     * @param x2         - x value of the end of the segment.
+     * @param y2         - y value of the end of the segment.
+     * @param margin     - distance around the segment to include (E.G: radius of a moving ball), 0 for a thin segment.
+     * @param candidates - list to be cleared and filled with the candidates.
+     */
+    void query(double x1, double y1, double x2, double y2, double margin, List<Collidable> candidates);
+
+    /**
+     * Make the calling thread the main user of the broad phase, used when a broad phase built on another thread is
+     * handed to the game's thread.
+     */
+    default void bindToCurrentThread() {
+        //Nothing is kept per thread by default.
+    }
+}
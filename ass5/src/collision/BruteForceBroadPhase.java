@@ -0,0 +1,46 @@
+package collision;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Broad phase that returns every collidable object as a candidate.
+ * Used as a reference for the other strategies, the cost of a query grows with the amount of collidables.
+ * @author Yuval Anteby
+ */
+public class BruteForceBroadPhase implements BroadPhase {
+    private final List<Collidable> collidables;
+
+    /**
+     * Default constructor for the class, will create an empty array list.
+     */
+    public BruteForceBroadPhase() {
+        this.collidables = new ArrayList<>();
+    }
+
+    @Override
+    public void add(Collidable c) {
+        if (c != null) {
+            this.collidables.add(c);
+        }
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        if (c != null) {
+            this.collidables.remove(c);
+        }
+    }
+
+    @Override
+    public void update(Collidable c) {
+        //Nothing is cached per collidable, the rectangle is read on every query.
+    }
+
+    @Override
+    public void query(double x1, double y1, double x2, double y2, double margin,
+                      List<Collidable> candidates) {
+        candidates.clear();
+        candidates.addAll(this.collidables);
+    }
+}
@@ -18,6 +18,38 @@ public interface Collidable {
      */
     Rectangle getCollisionRectangle();
 
+    /**
+     * Gets the left side of the collision rectangle, without creating the rectangle if it isn't kept by the object.
+     * @return - smallest x value of the collision rectangle.
+     */
+    default double getMinX() {
+        return getCollisionRectangle().getMinX();
+    }
+
+    /**
+     * Gets the top side of the collision rectangle, without creating the rectangle if it isn't kept by the object.
+     * @return - smallest y value of the collision rectangle.
+     */
+    default double getMinY() {
+        return getCollisionRectangle().getMinY();
+    }
+
+    /**
+     * Gets the right side of the collision rectangle, without creating the rectangle if it isn't kept by the object.
+     * @return - largest x value of the collision rectangle.
+     */
+    default double getMaxX() {
+        return getCollisionRectangle().getMaxX();
+    }
+
+    /**
+     * Gets the bottom side of the collision rectangle, without creating the rectangle if it isn't kept by the object.
+     * @return - largest y value of the collision rectangle.
+     */
+    default double getMaxY() {
+        return getCollisionRectangle().getMaxY();
+    }
+
     /**
      * Gets the block involved in the collision.
      * @return - block of the collision.
@@ -26,11 +58,25 @@ public interface Collidable {
 
     /**
      * Notifies the object that a collision occurred at the given point with the specified velocity.
-     * Will create a new velocity based on the hit.
+     * Will calculate the velocity after the hit, the given velocity may be updated and returned instead of creating
+     * a new one.
      * @param hitter            - ball that hit.
      * @param collisionPoint    - the point at which the collision occurred.
      * @param currentVelocity   - the velocity of the object at the time of collision.
      * @return - the new Velocity of the object after the collision.
      */
     Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity);
+
+    /**
+     * Notifies the object that a collision occurred at the given coordinates, without creating a point for them.
+     * Used by the balls' collision loop, objects that are hit often should override it.
+     * @param hitter          - ball that hit.
+     * @param x               - x value of the point at which the collision occurred.
+     * @param y               - y value of the point at which the collision occurred.
+     * @param currentVelocity - the velocity of the object at the time of collision.
+     * @return - the new Velocity of the object after the collision.
+     */
+    default Velocity hit(Ball hitter, double x, double y, Velocity currentVelocity) {
+        return hit(hitter, new Point(x, y), currentVelocity);
+    }
 }
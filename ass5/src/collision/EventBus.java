@@ -0,0 +1,157 @@
+package collision;
+
+import game.Block;
+import geometry.Ball;
+import util.Constants;
+
+/**
+ * Game wide queue of hit events.
+ * During the physics step the bricks of a level and the balls publish their events into a ring buffer instead of
+ * notifying their listeners, and the game drains the whole buffer at the end of the tick. Every event is delivered
+ * first to the object that published it (E.G: a brick takes the hit and notifies its own listeners), then to the
+ * listeners subscribed to its type, so the game's listeners are subscribed once instead of being added to every brick
+ * and ball. Removing blocks and balls in response to an event therefore happens after the step, never while the
+ * sprites are being iterated.
+ * An event whose block or ball was removed by an earlier event of the same tick is dropped.
+ * @author Yuval Anteby
+ */
+public class EventBus {
+    /**
+     * Types of events: a ball hit a block, or a ball hit a death block and left the game.
+     */
+    public static final int BLOCK_HIT = 0, BALL_EXIT = 1;
+    private static final int TYPES = 2;
+
+    private final HitListenerList[] subscribers = new HitListenerList[TYPES];
+    private int[] types;
+    private Block[] blocks;
+    private Ball[] balls;
+    private int head;
+    private int size;
+
+    /**
+     * Default constructor, preallocates the buffer with the default capacity.
+     */
+    public EventBus() {
+        this(Constants.EVENT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor for the bus.
+     * @param capacity - amount of events the buffer holds before it has to grow, rounded up to a power of two.
+     */
+    public EventBus(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int length = Integer.highestOneBit(capacity);
+        length = length == capacity ? length : length << 1;
+        this.types = new int[length];
+        this.blocks = new Block[length];
+        this.balls = new Ball[length];
+        for (int i = 0; i < TYPES; i++) {
+            this.subscribers[i] = new HitListenerList();
+        }
+    }
+
+    /**
+     * Subscribe a listener to every event of a type.
+     * @param type - {@link #BLOCK_HIT} or {@link #BALL_EXIT}.
+     * @param hl   - listener to be added.
+     */
+    public void subscribe(int type, HitListener hl) {
+        this.subscribers[checkType(type)].add(hl);
+    }
+
+    /**
+     * Stop sending the events of a type to a listener.
+     * @param type - {@link #BLOCK_HIT} or {@link #BALL_EXIT}.
+     * @param hl   - listener to be removed.
+     */
+    public void unsubscribe(int type, HitListener hl) {
+        this.subscribers[checkType(type)].remove(hl);
+    }
+
+    /**
+     * Queue an event until the next call to {@link #drain()}. The buffer doubles if it's full, events are never lost.
+     * @param type     - {@link #BLOCK_HIT} or {@link #BALL_EXIT}.
+     * @param beingHit - block that was hit.
+     * @param hitter   - ball that hit the block.
+     */
+    public void publish(int type, Block beingHit, Ball hitter) {
+        checkType(type);
+        if (this.size == this.types.length) {
+            grow();
+        }
+        int i = (this.head + this.size) & (this.types.length - 1);
+        this.types[i] = type;
+        this.blocks[i] = beingHit;
+        this.balls[i] = hitter;
+        this.size++;
+    }
+
+    /**
+     * Get the amount of events waiting to be delivered.
+     * @return - amount of queued events.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Deliver every queued event in the order it was published, including events published while draining.
+     */
+    public void drain() {
+        while (this.size > 0) {
+            int i = this.head;
+            int type = this.types[i];
+            Block beingHit = this.blocks[i];
+            Ball hitter = this.balls[i];
+            this.blocks[i] = null;
+            this.balls[i] = null;
+            this.head = (this.head + 1) & (this.types.length - 1);
+            this.size--;
+            if (type == BLOCK_HIT) {
+                if (beingHit.acceptsHit(hitter)) {
+                    beingHit.notifyHit(hitter);
+                    this.subscribers[BLOCK_HIT].notifyAll(beingHit, hitter);
+                }
+            } else if (!hitter.isRemoved()) {
+                hitter.notifyExit(beingHit);
+                this.subscribers[BALL_EXIT].notifyAll(beingHit, hitter);
+            }
+        }
+    }
+
+    /**
+     * Make sure an event type exists.
+     * @param type - type to check.
+     * @return - the same type.
+     */
+    private static int checkType(int type) {
+        if (type < 0 || type >= TYPES) {
+            throw new IllegalArgumentException("Unknown event type " + type);
+        }
+        return type;
+    }
+
+    /**
+     * Double the capacity of the buffer, moving the queued events to its start.
+     */
+    private void grow() {
+        int capacity = this.types.length * 2;
+        int[] newTypes = new int[capacity];
+        Block[] newBlocks = new Block[capacity];
+        Ball[] newBalls = new Ball[capacity];
+        for (int n = 0; n < this.size; n++) {
+            int i = (this.head + n) & (this.types.length - 1);
+            newTypes[n] = this.types[i];
+            newBlocks[n] = this.blocks[i];
+            newBalls[n] = this.balls[i];
+        }
+        this.types = newTypes;
+        this.blocks = newBlocks;
+        this.balls = newBalls;
+        this.head = 0;
+    }
+}
@@ -0,0 +1,74 @@
+package collision;
+
+import game.Block;
+import geometry.Ball;
+
+import java.util.Arrays;
+
+/**
+ * Copy on write list of hit listeners.
+ * Adding or removing a listener replaces the inner array, so notifying the listeners iterates over the current array
+ * without copying it, even if a listener removes itself (or another listener) while being notified.
+ * @author Yuval Anteby
+ */
+public class HitListenerList {
+    private static final HitListener[] EMPTY = new HitListener[0];
+
+    private HitListener[] listeners = EMPTY;
+
+    /**
+     * Add a listener to the end of the list.
+     * @param hl - listener to be added.
+     */
+    public void add(HitListener hl) {
+        if (hl == null) {
+            return;
+        }
+        HitListener[] copy = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        copy[copy.length - 1] = hl;
+        this.listeners = copy;
+    }
+
+    /**
+     * Remove the first appearance of a listener.
+     * @param hl - listener to be removed.
+     */
+    public void remove(HitListener hl) {
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] == hl) {
+                HitListener[] copy = new HitListener[this.listeners.length - 1];
+                System.arraycopy(this.listeners, 0, copy, 0, i);
+                System.arraycopy(this.listeners, i + 1, copy, i, copy.length - i);
+                this.listeners = copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove every listener.
+     */
+    public void clear() {
+        this.listeners = EMPTY;
+    }
+
+    /**
+     * Check if there are no listeners.
+     * @return - true if the list is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return this.listeners.length == 0;
+    }
+
+    /**
+     * Notify every listener that was in the list when the call started.
+     * @param beingHit - block that is being hit.
+     * @param hitter   - ball that hit.
+     */
+    public void notifyAll(Block beingHit, Ball hitter) {
+        HitListener[] current = this.listeners;
+        for (HitListener hl : current) {
+            hl.hitEvent(beingHit, hitter);
+        }
+    }
+}
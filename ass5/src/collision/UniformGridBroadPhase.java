@@ -0,0 +1,294 @@
+package collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broad phase that splits the world into a uniform grid of square cells.
+ * Every collidable is stored in the cells its rectangle overlaps, and a query only visits the cells the segment
+ * crosses (using a grid traversal) and their neighbours within the query's margin, so the cost of a query depends on
+ * the length of the segment and not on the amount of collidables in the game.
+ * Objects outside the world bounds are kept in the border cells, so the grid stays correct for any position.
+ * Queries may run on several threads at once (as long as nothing is added, removed or updated meanwhile), every
+ * thread other than the one that created the grid (or the last one bound to it) gets its own query scratch.
+ * @author Yuval Anteby
+ */
+public class UniformGridBroadPhase implements BroadPhase {
+    //Rectangles touching a cell's border are stored in both cells.
+    private static final double THRESHOLD = 0.0001;
+    private static final int DEFAULT_FREE_CAPACITY = 16;
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(e -> e.sequence);
+
+    private final double originX;
+    private final double originY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final List<List<Entry>> cells;
+    private final Map<Collidable, Entry> entries = new IdentityHashMap<>();
+    private Thread owner = Thread.currentThread();
+    private final Scratch ownerScratch = new Scratch();
+    private final ThreadLocal<Scratch> workerScratch = ThreadLocal.withInitial(Scratch::new);
+    //Ids of removed entries, reused so the stamps arrays stay as small as the amount of entries.
+    private int[] freeIds = new int[DEFAULT_FREE_CAPACITY];
+    private int freeCount;
+    private long nextSequence;
+    private int nextId;
+
+    /**
+     * Constructor for the grid.
+     * @param originX   - x value of the top left corner of the world.
+     * @param originY   - y value of the top left corner of the world.
+     * @param width     - width of the world.
+     * @param height    - height of the world.
+     * @param cellSize  - width and height of every cell.
+     */
+    public UniformGridBroadPhase(double originX, double originY, double width, double height, double cellSize) {
+        if (cellSize <= 0 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid sizes must be positive");
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.cells = new ArrayList<>(this.columns * this.rows);
+        for (int i = 0; i < this.columns * this.rows; i++) {
+            this.cells.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void add(Collidable c) {
+        if (c == null || this.entries.containsKey(c)) {
+            return;
+        }
+        int id = this.freeCount == 0 ? this.nextId++ : this.freeIds[--this.freeCount];
+        Entry entry = new Entry(c, this.nextSequence++, id);
+        this.entries.put(c, entry);
+        setCellRange(entry);
+        insert(entry);
+    }
+
+    @Override
+    public void remove(Collidable c) {
+        if (c == null) {
+            return;
+        }
+        Entry entry = this.entries.remove(c);
+        if (entry != null) {
+            erase(entry, entry.minCol, entry.minRow, entry.maxCol, entry.maxRow);
+            if (this.freeCount == this.freeIds.length) {
+                this.freeIds = Arrays.copyOf(this.freeIds, this.freeCount * 2);
+            }
+            this.freeIds[this.freeCount++] = entry.id;
+        }
+    }
+
+    @Override
+    public void update(Collidable c) {
+        Entry entry = c == null ? null : this.entries.get(c);
+        if (entry == null) {
+            return;
+        }
+        int minCol = entry.minCol, minRow = entry.minRow, maxCol = entry.maxCol, maxRow = entry.maxRow;
+        setCellRange(entry);
+        //Only move the entry between cells if the range of cells actually changed.
+        if (minCol != entry.minCol || minRow != entry.minRow || maxCol != entry.maxCol || maxRow != entry.maxRow) {
+            erase(entry, minCol, minRow, maxCol, maxRow);
+            insert(entry);
+        }
+    }
+
+    @Override
+    public void bindToCurrentThread() {
+        this.owner = Thread.currentThread();
+    }
+
+    @Override
+    public void query(double x1, double y1, double x2, double y2, double margin,
+                      List<Collidable> candidates) {
+        candidates.clear();
+        Scratch scratch = Thread.currentThread() == this.owner ? this.ownerScratch : this.workerScratch.get();
+        scratch.begin(this.nextId);
+        int ring = margin > 0 ? (int) Math.ceil(margin / this.cellSize) : 0;
+        //Walk over the cells crossed by the segment (Amanatides-Woo traversal).
+        long col = cellOf(x1, this.originX), row = cellOf(y1, this.originY);
+        long endCol = cellOf(x2, this.originX), endRow = cellOf(y2, this.originY);
+        double dx = x2 - x1, dy = y2 - y1;
+        int stepCol = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepRow = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        double deltaCol = stepCol == 0 ? Double.POSITIVE_INFINITY : this.cellSize / Math.abs(dx);
+        double deltaRow = stepRow == 0 ? Double.POSITIVE_INFINITY : this.cellSize / Math.abs(dy);
+        double nextCol = stepCol == 0 ? Double.POSITIVE_INFINITY
+                : ((col + (stepCol > 0 ? 1 : 0)) * this.cellSize + this.originX - x1) / dx;
+        double nextRow = stepRow == 0 ? Double.POSITIVE_INFINITY
+                : ((row + (stepRow > 0 ? 1 : 0)) * this.cellSize + this.originY - y1) / dy;
+        long steps = Math.abs(endCol - col) + Math.abs(endRow - row);
+        visit(scratch, col, row, ring);
+        for (long i = 0; i < steps; i++) {
+            //Never step past the end cell on an axis, even if rounding says otherwise.
+            if (col != endCol && (row == endRow || nextCol < nextRow)) {
+                col += stepCol;
+                nextCol += deltaCol;
+            } else {
+                row += stepRow;
+                nextRow += deltaRow;
+            }
+            visit(scratch, col, row, ring);
+        }
+        //Keep the order of insertion, so ties are resolved like in the brute force scan.
+        scratch.found.sort(BY_SEQUENCE);
+        for (int i = 0; i < scratch.found.size(); i++) {
+            candidates.add(scratch.found.get(i).collidable);
+        }
+    }
+
+    /**
+     * Collect the entries of a cell and its neighbours that were not found yet in the current query.
+     * @param scratch - scratch of the current query.
+     * @param col     - column of the cell, might be outside the grid.
+     * @param row     - row of the cell, might be outside the grid.
+     * @param ring    - amount of neighbouring cells to include in every direction.
+     */
+    private void visit(Scratch scratch, long col, long row, int ring) {
+        int minCol = clampCol(col - ring), maxCol = clampCol(col + ring);
+        int minRow = clampRow(row - ring), maxRow = clampRow(row + ring);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                List<Entry> cell = this.cells.get(r * this.columns + c);
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry entry = cell.get(i);
+                    if (scratch.stamps[entry.id] != scratch.stamp) {
+                        scratch.stamps[entry.id] = scratch.stamp;
+                        scratch.found.add(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculate the range of cells covered by the entry's rectangle.
+     * @param entry - entry to update.
+     */
+    private void setCellRange(Entry entry) {
+        Collidable c = entry.collidable;
+        entry.minCol = clampCol(cellOf(c.getMinX() - THRESHOLD, this.originX));
+        entry.minRow = clampRow(cellOf(c.getMinY() - THRESHOLD, this.originY));
+        entry.maxCol = clampCol(cellOf(c.getMaxX() + THRESHOLD, this.originX));
+        entry.maxRow = clampRow(cellOf(c.getMaxY() + THRESHOLD, this.originY));
+    }
+
+    /**
+     * Add the entry to every cell in its range.
+     * @param entry - entry to add.
+     */
+    private void insert(Entry entry) {
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int col = entry.minCol; col <= entry.maxCol; col++) {
+                this.cells.get(row * this.columns + col).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove the entry from every cell in a range.
+     * @param entry  - entry to remove.
+     * @param minCol - first column of the range.
+     * @param minRow - first row of the range.
+     * @param maxCol - last column of the range.
+     * @param maxRow - last row of the range.
+     */
+    private void erase(Entry entry, int minCol, int minRow, int maxCol, int maxRow) {
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                this.cells.get(row * this.columns + col).remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Find the index of the cell containing a coordinate, without clamping to the grid.
+     * @param value  - coordinate value.
+     * @param origin - coordinate of the world's origin on the same axis.
+     * @return - index of the cell.
+     */
+    private long cellOf(double value, double origin) {
+        return (long) Math.floor((value - origin) / this.cellSize);
+    }
+
+    /**
+     * Clamp a column index into the grid.
+     * @param col - column index.
+     * @return - column index inside the grid.
+     */
+    private int clampCol(long col) {
+        return (int) Math.max(0, Math.min(this.columns - 1, col));
+    }
+
+    /**
+     * Clamp a row index into the grid.
+     * @param row - row index.
+     * @return - row index inside the grid.
+     */
+    private int clampRow(long row) {
+        return (int) Math.max(0, Math.min(this.rows - 1, row));
+    }
+
+    /**
+     * A collidable stored in the grid with the range of cells it covers.
+     */
+    private static final class Entry {
+        private final Collidable collidable;
+        private final long sequence;
+        private final int id;
+        private int minCol;
+        private int minRow;
+        private int maxCol;
+        private int maxRow;
+
+        /**
+         * Constructor for an entry.
+         * @param collidable - collidable object.
+         * @param sequence   - order in which the collidable was added.
+         * @param id         - dense index of the entry in the query stamps.
+         */
+        private Entry(Collidable collidable, long sequence, int id) {
+            this.collidable = collidable;
+            this.sequence = sequence;
+            this.id = id;
+        }
+    }
+
+    /**
+     * State of the queries of a single thread: the entries found so far and a stamp per entry id, so an entry that
+     * covers several visited cells is only collected once.
+     */
+    private static final class Scratch {
+        private final List<Entry> found = new ArrayList<>();
+        private int[] stamps = new int[0];
+        private int stamp;
+
+        /**
+         * Prepare for a new query.
+         * @param ids - amount of entry ids in use.
+         */
+        private void begin(int ids) {
+            this.found.clear();
+            if (this.stamps.length < ids) {
+                this.stamps = Arrays.copyOf(this.stamps, Math.max(ids, this.stamps.length * 2));
+            }
+            this.stamp++;
+            //Reset the stamps in the rare case the stamp overflows.
+            if (this.stamp == 0) {
+                Arrays.fill(this.stamps, 0);
+                this.stamp = 1;
+            }
+        }
+    }
+}
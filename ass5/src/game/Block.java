@@ -4,27 +4,38 @@ import biuoop.DrawSurface;
 import geometry.Ball;
 import geometry.Point;
 import geometry.Rectangle;
+import geometry.SegmentHit;
+import graphics.Palette;
 import graphics.Sprite;
 import collision.Collidable;
+import collision.EventBus;
 import collision.HitListener;
+import collision.HitListenerList;
 import collision.HitNotifier;
 import physics.Velocity;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 
 
 /**
  * Class to represent a block on the GUI. Will be of a rectangle shape and get a color.
+ * A block either keeps its own rectangle and color (E.G: the bounds and the paddle), or is a view of a brick kept in a
+ * {@link BrickTable}, in which case every state of the block other than its listeners is in the table. The hits of a
+ * brick are published to the game's event bus, the hits of other blocks are only reported to their own listeners.
  * @author Yuval Anteby
  */
 public class Block implements Collidable, Sprite, HitNotifier {
 
     private Rectangle rectangle;
-    private Color color;
-    private List<HitListener> hitListeners = new ArrayList<>();
+    //Id of the block's color in the palette.
+    private int color;
+    //Created with the first listener, the listeners of a brick are usually added to its table instead.
+    private HitListenerList hitListeners;
     private boolean deathBlock;
+    private boolean removed;
+    private int hitPoints = 1;
+    private BrickTable table;
+    private int id;
 
     /**
      * Constructor for the block class.
@@ -33,10 +44,20 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public Block(Rectangle rectangle, Color color) {
         this.rectangle = rectangle;
-        this.color = color;
+        this.color = Palette.idOf(color);
         this.deathBlock = false;
     }
 
+    /**
+     * Constructor for a view of a brick kept in a table.
+     * @param table - table holding the brick.
+     * @param id    - id of the brick in the table.
+     */
+    Block(BrickTable table, int id) {
+        this.table = table;
+        this.id = id;
+    }
+
     /**
      * Check if this block is a death block.
      * a hit with a death block will cause the ball to be removed from the game.
@@ -55,12 +76,12 @@ public class Block implements Collidable, Sprite, HitNotifier {
     }
 
     /**
-     * Add the block to the game a sprite and a collidable object.
+     * Add the block to the game as a static sprite and a collidable object.
      * @param g     - the game reference we add to.
      */
     public void addToGame(Game g) {
         g.addCollidable(this);
-        g.addSprite(this);
+        g.addStaticSprite(this);
     }
 
     /**
@@ -68,7 +89,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param g     - the game reference we add to.
      */
     public void addBackground(Game g) {
-        g.addSprite(this);
+        g.addStaticSprite(this);
     }
 
     /**
@@ -77,7 +98,7 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @return - true if the block and ball has the same color, otherwise false.
      */
     public boolean ballColorMatch(Ball ball) {
-        return this.getColor().equals(ball.getColor());
+        return getColorId() == ball.getColorId();
     }
 
     /**
@@ -86,32 +107,120 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     public void removeFromGame(Game game) {
         if (game != null) {
-            game.removeCollidable(this);
-            game.removeSprite(this);
-            for (int i = 0; i < this.hitListeners.size(); i++) {
-                removeHitListener(this.hitListeners.get(i));
+            if (this.table != null) {
+                //The brick is hit and drawn as part of its table.
+                game.removeBrick(this.table, this.id);
+            } else {
+                game.removeCollidable(this);
+                this.removed = true;
+                game.removeSprite(this);
             }
+            if (this.hitListeners != null) {
+                this.hitListeners.clear();
+            }
+        }
+    }
+
+    /**
+     * Check if the block was removed from the game.
+     * @return - true if the block was removed, otherwise false.
+     */
+    public boolean isRemoved() {
+        return this.table != null ? this.table.isRemoved(this.id) : this.removed;
+    }
+
+    /**
+     * Getter for the amount of hits the block can still take before it breaks.
+     * @return - hit points left to the block, 0 once it's broken.
+     */
+    public int getHitPoints() {
+        return this.table != null ? this.table.getHitPoints(this.id) : this.hitPoints;
+    }
+
+    /**
+     * Check if the block can't be broken, the hits of the balls aren't reported for a solid block.
+     * @return - true if the block is solid, otherwise false.
+     */
+    public boolean isSolid() {
+        return this.table != null && this.table.isSolid(this.id);
+    }
+
+    /**
+     * Check if the block drops a power up when it breaks.
+     * @return - true if the block has a power up, otherwise false.
+     */
+    public boolean hasPowerUp() {
+        return this.table != null && this.table.hasPowerUp(this.id);
+    }
+
+    /**
+     * Check if a hit by a ball should be reported to the listeners.
+     * Only a ball of a different color is reported, and nothing is reported for a solid block or once the block was
+     * removed.
+     * @param hitter - the ball that hit the block.
+     * @return - true if the hit should be reported, otherwise false.
+     */
+    public boolean acceptsHit(Ball hitter) {
+        if (this.table != null) {
+            return this.table.acceptsHit(this.id, hitter.getColorId());
         }
+        return !this.removed && !ballColorMatch(hitter);
     }
 
     /**
      * Function to update all hit listeners upon a hit.
+     * The hit takes a hit point off the block before the listeners are notified, so they can tell if it broke.
+     * Called by the game's event bus at the end of the tick for a brick, otherwise right away.
      * @param hitter - the ball that hit the block.
      */
-    private void notifyHit(Ball hitter) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<HitListener>(this.hitListeners);
-        // Notify all listeners about a hit event:
-        for (HitListener hl : listeners) {
-            hl.hitEvent(this, hitter);
+    public void notifyHit(Ball hitter) {
+        if (isRemoved()) {
+            return;
+        }
+        if (this.table != null) {
+            this.table.damage(this.id);
+        } else if (this.hitPoints > 0) {
+            this.hitPoints--;
+        }
+        if (this.hitListeners != null) {
+            this.hitListeners.notifyAll(this, hitter);
         }
     }
 
+    /**
+     * Getter for the rectangle of the block. A view of a brick creates its rectangle from the table on the first call,
+     * the collision code only uses the bounds getters.
+     * @return - rectangle of the block.
+     */
     @Override
     public Rectangle getCollisionRectangle() {
+        if (this.rectangle == null) {
+            this.rectangle = new Rectangle(new Point(this.table.getMinX(this.id), this.table.getMinY(this.id)),
+                    this.table.getWidth(this.id), this.table.getHeight(this.id));
+        }
         return rectangle;
     }
 
+    @Override
+    public double getMinX() {
+        return this.table != null ? this.table.getMinX(this.id) : this.rectangle.getMinX();
+    }
+
+    @Override
+    public double getMinY() {
+        return this.table != null ? this.table.getMinY(this.id) : this.rectangle.getMinY();
+    }
+
+    @Override
+    public double getMaxX() {
+        return this.table != null ? this.table.getMaxX(this.id) : this.rectangle.getMaxX();
+    }
+
+    @Override
+    public double getMaxY() {
+        return this.table != null ? this.table.getMaxY(this.id) : this.rectangle.getMaxY();
+    }
+
     @Override
     public Block getCollisionBlock() {
         return this;
@@ -122,35 +231,61 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @return - color of the block.
      */
     public Color getColor() {
-        return color;
+        return Palette.colorOf(getColorId());
+    }
+
+    /**
+     * Get the id of the block's color in the palette, balls and blocks of the same color have the same id.
+     * @return - palette id of the block's color.
+     */
+    public int getColorId() {
+        return this.table != null ? this.table.getColorId(this.id) : this.color;
     }
 
     @Override
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
-        if ((collisionPoint == null) || (currentVelocity == null)) {
+        if (collisionPoint == null) {
+            throw new IllegalArgumentException("Null exception hit function");
+        }
+        return hit(hitter, collisionPoint.getX(), collisionPoint.getY(), currentVelocity);
+    }
+
+    @Override
+    public Velocity hit(Ball hitter, double x, double y, Velocity currentVelocity) {
+        if (currentVelocity == null) {
             throw new IllegalArgumentException("Null exception hit function");
         }
         double dx = currentVelocity.getDx(), dy = currentVelocity.getDy();
+        int sides = Rectangle.sidesAt(x, y, getMinX(), getMinY(), getMaxX(), getMaxY());
         //Check horizontal lines collision.
-        if (this.rectangle.getTopLine().isContaining(collisionPoint)
-                || this.rectangle.getBottomLine().isContaining(collisionPoint)) {
+        if ((sides & SegmentHit.HORIZONTAL) != 0) {
             dy *= -1;
         }
         //Check vertical lines collision.
-        if (this.rectangle.getLeftLine().isContaining(collisionPoint)
-                || this.rectangle.getRightLine().isContaining(collisionPoint)) {
+        if ((sides & SegmentHit.VERTICAL) != 0) {
             dx *= -1;
         }
         //Remove the ball if the color of the ball is different from the block.
-        if (!ballColorMatch(hitter)) {
-            this.notifyHit(hitter);
+        if (acceptsHit(hitter)) {
+            //Only the bricks report their hits to the game, other blocks (E.G: the bounds) only to their own listeners.
+            if (this.table != null && this.table.getEventBus() != null) {
+                this.table.getEventBus().publish(EventBus.BLOCK_HIT, this, hitter);
+            } else {
+                this.notifyHit(hitter);
+            }
         }
-        return new Velocity(dx, dy);
+        currentVelocity.setDx(dx);
+        currentVelocity.setDy(dy);
+        return currentVelocity;
     }
 
     @Override
     public void drawOn(DrawSurface d) {
-        d.setColor(this.color);
+        if (this.table != null) {
+            this.table.drawBrick(d, this.id);
+            return;
+        }
+        d.setColor(getColor());
         d.fillRectangle((int) rectangle.getUpperLeft().getX(), (int) rectangle.getUpperLeft().getY(),
                 (int) rectangle.getWidth(), (int) rectangle.getHeight());
         d.setColor(Color.black);
@@ -165,19 +300,20 @@ public class Block implements Collidable, Sprite, HitNotifier {
 
     @Override
     public String toString() {
-        return "Block [rectangle=" + rectangle + ", color=" + color + "]";
+        return "Block [rectangle=" + getCollisionRectangle() + ", color=" + getColor() + "]";
     }
 
     @Override
     public void addHitListener(HitListener hl) {
-        if (hl != null) {
-            this.hitListeners.add(hl);
+        if (this.hitListeners == null) {
+            this.hitListeners = new HitListenerList();
         }
+        this.hitListeners.add(hl);
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        if (hl != null) {
+        if (this.hitListeners != null) {
             this.hitListeners.remove(hl);
         }
     }
@@ -0,0 +1,444 @@
+package game;
+
+import biuoop.DrawSurface;
+import collision.EventBus;
+import geometry.SegmentHit;
+import graphics.Palette;
+import graphics.Sprite;
+import level.LevelSink;
+import util.Constants;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Class to hold the state of the bricks of a level in parallel arrays, indexed by the id of the brick.
+ * A brick takes a few dozen bytes: its rectangle as floats (like in the level formats), the id of its color in the
+ * {@link Palette}, its hit points, its flags and its id in the cells of the table's grid. The table finds the brick a
+ * trajectory hits first on its own, so the bricks aren't objects in the {@link GameEnvironment}. The {@link Block} of
+ * a brick is only a view of its row in the table, created the first time the brick is hit.
+ * The table is drawn as a single static sprite holding every brick that wasn't broken, and the views publish the hits
+ * of the bricks to the game's event bus.
+ * @author Yuval Anteby
+ */
+class BrickTable implements Sprite {
+    //Flag of a brick that was broken, above the flags of the level formats.
+    private static final int REMOVED = 0x40;
+    //A brick with any of these flags lets every ball pass without reporting a hit.
+    private static final int IGNORES_HITS = REMOVED | LevelSink.SOLID;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_CELL_CAPACITY = 4;
+    //Rectangles touching a cell's border are stored in both cells.
+    private static final double THRESHOLD = 0.0001;
+    private static final double CELL_SIZE = Constants.GRID_CELL_SIZE;
+    private static final int COLUMNS = (int) Math.ceil(Constants.GUI_WIDTH / CELL_SIZE);
+    private static final int ROWS = (int) Math.ceil(Constants.GUI_HEIGHT / CELL_SIZE);
+
+    private float[] x = new float[DEFAULT_CAPACITY];
+    private float[] y = new float[DEFAULT_CAPACITY];
+    private float[] width = new float[DEFAULT_CAPACITY];
+    private float[] height = new float[DEFAULT_CAPACITY];
+    private int[] colors = new int[DEFAULT_CAPACITY];
+    private byte[] hitPoints = new byte[DEFAULT_CAPACITY];
+    private byte[] flags = new byte[DEFAULT_CAPACITY];
+    private int size;
+    //Ids of the bricks overlapping every cell of a grid over the GUI, in the order the bricks were added.
+    private final int[][] cells = new int[COLUMNS * ROWS][];
+    private final int[] cellSizes = new int[COLUMNS * ROWS];
+    //Views of the bricks that were hit, created on demand.
+    private Block[] views;
+    private final EventBus eventBus;
+
+    /**
+     * Constructor for an empty table.
+     * @param eventBus - event bus the views of the bricks publish their hits to, null to notify the listeners right
+     *                 away.
+     */
+    BrickTable(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Add a brick to the table.
+     * @param brickX      - x value of the top left corner of the brick.
+     * @param brickY      - y value of the top left corner of the brick.
+     * @param brickWidth  - width of the brick.
+     * @param brickHeight - height of the brick.
+     * @param color       - color of the brick.
+     * @param brickHits   - amount of hits it takes to break the brick.
+     * @param brickFlags  - bitmask of {@link LevelSink#SOLID} and {@link LevelSink#POWER_UP}.
+     * @return - id of the new brick.
+     */
+    int add(double brickX, double brickY, double brickWidth, double brickHeight, Color color, int brickHits,
+            int brickFlags) {
+        LevelSink.checkBlock(brickHits, brickFlags);
+        if (this.size == this.x.length) {
+            grow();
+        }
+        int id = this.size++;
+        this.x[id] = (float) brickX;
+        this.y[id] = (float) brickY;
+        this.width[id] = (float) brickWidth;
+        this.height[id] = (float) brickHeight;
+        this.colors[id] = Palette.idOf(color);
+        this.hitPoints[id] = (byte) brickHits;
+        this.flags[id] = (byte) brickFlags;
+        for (int row = rowOf(getMinY(id) - THRESHOLD); row <= rowOf(getMaxY(id) + THRESHOLD); row++) {
+            for (int col = colOf(getMinX(id) - THRESHOLD); col <= colOf(getMaxX(id) + THRESHOLD); col++) {
+                addToCell(row * COLUMNS + col, id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Get the view of a brick, the same view is returned for every call.
+     * Safe to call from the threads that look for collisions.
+     * @param id - id of the brick.
+     * @return - block that is a view of the brick.
+     */
+    synchronized Block view(int id) {
+        if (this.views == null || this.views.length < this.size) {
+            this.views = this.views == null ? new Block[this.size] : Arrays.copyOf(this.views, this.size);
+        }
+        if (this.views[id] == null) {
+            this.views[id] = new Block(this, id);
+        }
+        return this.views[id];
+    }
+
+    /**
+     * Getter for the event bus the views of the bricks publish their hits to.
+     * @return - event bus of the game, null if the hits are notified right away.
+     */
+    EventBus getEventBus() {
+        return this.eventBus;
+    }
+
+    /**
+     * Find the brick that a segment or a moving circle hits first, without creating any objects. Only the bricks in
+     * the cells around the trajectory are tested, and a removed brick is never hit. When several bricks are hit at
+     * the same moment the one added first is returned, like a scan of the bricks in their order would.
+     * @param x1     - x value of the start of the trajectory.
+     * @param y1     - y value of the start of the trajectory.
+     * @param x2     - x value of the end of the trajectory.
+     * @param y2     - y value of the end of the trajectory.
+     * @param radius - radius of the moving circle, 0 for a segment.
+     * @param swept  - true to test a moving circle (E.G: a ball), false to test a thin segment.
+     * @param query  - scratch of the calling thread, filled with the hit and the amount of bricks tested.
+     * @return - id of the brick hit first, -1 if no brick is hit.
+     */
+    int closestHit(double x1, double y1, double x2, double y2, double radius, boolean swept, Query query) {
+        SegmentHit hit = query.hit, probe = query.probe;
+        hit.clear();
+        query.tested = 0;
+        int closest = -1;
+        double margin = radius + THRESHOLD;
+        int minCol = colOf(Math.min(x1, x2) - margin), maxCol = colOf(Math.max(x1, x2) + margin);
+        int minRow = rowOf(Math.min(y1, y2) - margin), maxRow = rowOf(Math.max(y1, y2) + margin);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int[] ids = this.cells[row * COLUMNS + col];
+                int count = this.cellSizes[row * COLUMNS + col];
+                for (int i = 0; i < count; i++) {
+                    int id = ids[i];
+                    //A brick covering several of the cells is only tested in the first one.
+                    if ((this.flags[id] & REMOVED) != 0 || Math.max(colOf(getMinX(id) - THRESHOLD), minCol) != col
+                            || Math.max(rowOf(getMinY(id) - THRESHOLD), minRow) != row) {
+                        continue;
+                    }
+                    query.tested++;
+                    boolean touched = swept
+                            ? SegmentHit.sweptCircleBox(x1, y1, x2, y2, radius, getMinX(id), getMinY(id),
+                                    getMaxX(id), getMaxY(id), probe)
+                            : SegmentHit.segmentBox(x1, y1, x2, y2, getMinX(id), getMinY(id), getMaxX(id),
+                                    getMaxY(id), probe);
+                    if (touched && (probe.getT() < hit.getT() || (probe.getT() == hit.getT() && id < closest))) {
+                        hit.set(probe);
+                        closest = id;
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Get the amount of bricks in the table, broken or not.
+     * @return - amount of bricks.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the left side of a brick.
+     * @param id - id of the brick.
+     * @return - smallest x value of the brick.
+     */
+    double getMinX(int id) {
+        return this.x[id];
+    }
+
+    /**
+     * Getter for the top side of a brick.
+     * @param id - id of the brick.
+     * @return - smallest y value of the brick.
+     */
+    double getMinY(int id) {
+        return this.y[id];
+    }
+
+    /**
+     * Getter for the right side of a brick.
+     * @param id - id of the brick.
+     * @return - largest x value of the brick.
+     */
+    double getMaxX(int id) {
+        return (double) this.x[id] + this.width[id];
+    }
+
+    /**
+     * Getter for the bottom side of a brick.
+     * @param id - id of the brick.
+     * @return - largest y value of the brick.
+     */
+    double getMaxY(int id) {
+        return (double) this.y[id] + this.height[id];
+    }
+
+    /**
+     * Getter for the width of a brick.
+     * @param id - id of the brick.
+     * @return - width of the brick.
+     */
+    double getWidth(int id) {
+        return this.width[id];
+    }
+
+    /**
+     * Getter for the height of a brick.
+     * @param id - id of the brick.
+     * @return - height of the brick.
+     */
+    double getHeight(int id) {
+        return this.height[id];
+    }
+
+    /**
+     * Getter for the color of a brick.
+     * @param id - id of the brick.
+     * @return - color of the brick.
+     */
+    Color getColor(int id) {
+        return Palette.colorOf(this.colors[id]);
+    }
+
+    /**
+     * Getter for the palette id of a brick's color.
+     * @param id - id of the brick.
+     * @return - palette id of the brick's color.
+     */
+    int getColorId(int id) {
+        return this.colors[id];
+    }
+
+    /**
+     * Check if a hit by a ball of a color should be reported: the brick wasn't removed, isn't solid and has a
+     * different color than the ball.
+     * @param id      - id of the brick.
+     * @param colorId - palette id of the ball's color.
+     * @return - true if the hit should be reported, otherwise false.
+     */
+    boolean acceptsHit(int id, int colorId) {
+        return (this.flags[id] & IGNORES_HITS) == 0 && this.colors[id] != colorId;
+    }
+
+    /**
+     * Getter for the amount of hits a brick can still take.
+     * @param id - id of the brick.
+     * @return - hit points left to the brick, 0 once it's broken.
+     */
+    int getHitPoints(int id) {
+        return this.hitPoints[id];
+    }
+
+    /**
+     * Set the amount of hits a brick can still take, used when a level is restored.
+     * @param id    - id of the brick.
+     * @param hits  - hit points left to the brick.
+     */
+    void setHitPoints(int id, int hits) {
+        if (hits < 0 || hits > LevelSink.MAX_HIT_POINTS) {
+            throw new IllegalArgumentException("Hit points must be between 0 and " + LevelSink.MAX_HIT_POINTS);
+        }
+        this.hitPoints[id] = (byte) hits;
+    }
+
+    /**
+     * Take a hit point off a brick.
+     * @param id - id of the brick.
+     * @return - hit points left to the brick.
+     */
+    int damage(int id) {
+        if (this.hitPoints[id] > 0) {
+            this.hitPoints[id]--;
+        }
+        return this.hitPoints[id];
+    }
+
+    /**
+     * Check if a brick can't be broken.
+     * @param id - id of the brick.
+     * @return - true if the brick is solid, otherwise false.
+     */
+    boolean isSolid(int id) {
+        return (this.flags[id] & LevelSink.SOLID) != 0;
+    }
+
+    /**
+     * Check if a brick drops a power up when it breaks.
+     * @param id - id of the brick.
+     * @return - true if the brick has a power up, otherwise false.
+     */
+    boolean hasPowerUp(int id) {
+        return (this.flags[id] & LevelSink.POWER_UP) != 0;
+    }
+
+    /**
+     * Check if a brick was removed from the game.
+     * @param id - id of the brick.
+     * @return - true if the brick was removed, otherwise false.
+     */
+    boolean isRemoved(int id) {
+        return (this.flags[id] & REMOVED) != 0;
+    }
+
+    /**
+     * Mark a brick as removed, it's no longer drawn or hit.
+     * @param id - id of the brick.
+     */
+    void remove(int id) {
+        this.flags[id] |= REMOVED;
+        this.hitPoints[id] = 0;
+    }
+
+    /**
+     * Draw a single brick.
+     * @param d  - surface to draw on.
+     * @param id - id of the brick.
+     */
+    void drawBrick(DrawSurface d, int id) {
+        int brickX = (int) this.x[id], brickY = (int) this.y[id];
+        int brickWidth = (int) this.width[id], brickHeight = (int) this.height[id];
+        d.setColor(Palette.colorOf(this.colors[id]));
+        d.fillRectangle(brickX, brickY, brickWidth, brickHeight);
+        d.setColor(Color.black);
+        d.drawRectangle(brickX, brickY, brickWidth, brickHeight);
+    }
+
+    /**
+     * Draw every brick that wasn't broken. The bricks are filled first, setting the color only when it differs from
+     * the previous brick's (bricks of a row usually share it), and then outlined in black with a single color change.
+     * @param d - surface to draw on.
+     */
+    @Override
+    public void drawOn(DrawSurface d) {
+        //Out of the range of the color ids, so the first brick always sets the color.
+        long current = Long.MIN_VALUE;
+        for (int id = 0; id < this.size; id++) {
+            if ((this.flags[id] & REMOVED) == 0) {
+                if (this.colors[id] != current) {
+                    current = this.colors[id];
+                    d.setColor(Palette.colorOf(this.colors[id]));
+                }
+                d.fillRectangle((int) this.x[id], (int) this.y[id], (int) this.width[id], (int) this.height[id]);
+            }
+        }
+        d.setColor(Color.black);
+        for (int id = 0; id < this.size; id++) {
+            if ((this.flags[id] & REMOVED) == 0) {
+                d.drawRectangle((int) this.x[id], (int) this.y[id], (int) this.width[id], (int) this.height[id]);
+            }
+        }
+    }
+
+    @Override
+    public void timePassed() {
+
+    }
+
+    /**
+     * Add a brick to a cell of the grid.
+     * @param cell - index of the cell.
+     * @param id   - id of the brick.
+     */
+    private void addToCell(int cell, int id) {
+        int[] ids = this.cells[cell];
+        if (ids == null) {
+            ids = new int[DEFAULT_CELL_CAPACITY];
+            this.cells[cell] = ids;
+        } else if (this.cellSizes[cell] == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            this.cells[cell] = ids;
+        }
+        ids[this.cellSizes[cell]++] = id;
+    }
+
+    /**
+     * Find the column of the grid containing an x value, bricks outside the GUI are kept in the border cells.
+     * @param value - x value.
+     * @return - column index inside the grid.
+     */
+    private static int colOf(double value) {
+        return (int) Math.max(0, Math.min(COLUMNS - 1, Math.floor(value / CELL_SIZE)));
+    }
+
+    /**
+     * Find the row of the grid containing a y value, bricks outside the GUI are kept in the border cells.
+     * @param value - y value.
+     * @return - row index inside the grid.
+     */
+    private static int rowOf(double value) {
+        return (int) Math.max(0, Math.min(ROWS - 1, Math.floor(value / CELL_SIZE)));
+    }
+
+    /**
+     * Double the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.width = Arrays.copyOf(this.width, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.hitPoints = Arrays.copyOf(this.hitPoints, capacity);
+        this.flags = Arrays.copyOf(this.flags, capacity);
+    }
+
+    /**
+     * Result and scratch of the brick queries of a single thread.
+     */
+    static final class Query {
+        private final SegmentHit hit = new SegmentHit();
+        private final SegmentHit probe = new SegmentHit();
+        private int tested;
+
+        /**
+         * Getter for the hit of the brick found by the last query.
+         * @return - hit of the closest brick, cleared if no brick was hit.
+         */
+        SegmentHit getHit() {
+            return this.hit;
+        }
+
+        /**
+         * Getter for the amount of bricks the last query tested.
+         * @return - amount of bricks tested.
+         */
+        int getTested() {
+            return this.tested;
+        }
+    }
+}
@@ -6,41 +6,114 @@ import biuoop.Sleeper;
 import graphics.BallRemover;
 import graphics.BlockRemover;
 import geometry.Ball;
+import geometry.BallSystem;
 import geometry.Point;
 import geometry.Rectangle;
+import graphics.NullDrawSurface;
+import graphics.Palette;
+import graphics.PowerUpSpawner;
+import graphics.RenderQueue;
 import graphics.Sprite;
 import graphics.SpriteCollection;
+import input.FollowBallInput;
+import input.InputSource;
+import input.KeyboardInput;
+import input.RecordingInput;
+import input.SampledInput;
+import level.GeneratedLevelProvider;
+import level.LevelProvider;
+import metrics.GameMetrics;
+import metrics.MetricsSink;
 import collision.Collidable;
+import collision.EventBus;
 import physics.Velocity;
+import replay.GameSnapshot;
+import replay.ReplayWriter;
 import score.ScoreIndicator;
 import score.ScoreTrackingListener;
 import util.Constants;
 import util.Counter;
+import util.IntCounter;
+import util.RandomSource;
+import util.StripedCounter;
 
 import java.awt.Color;
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Class to handle the game's sprites animation and GUI creation.
  * @author Yuval Anteby
  */
 public class Game {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L, NANOS_PER_MILLI = 1_000_000L;
 
     private SpriteCollection sprites;
     private GameEnvironment environment;
     private GUI gui;
     private BlockRemover blockRemover;
     private BallRemover ballRemover;
+    private PowerUpSpawner powerUpSpawner;
     private ScoreTrackingListener scoreTrackingListener;
     private ScoreIndicator scoreIndicator;
+    private final GameConfig config;
+    private final List<Ball> balls = new ArrayList<>();
+    private Paddle paddle;
+    private InputSource input;
+    private DrawSurface nullSurface;
+    //Shared by the sprites of every level, null if the sprites are drawn directly.
+    private RenderQueue renderQueue;
+    private long tickCount;
+    private double ticksPerSecond;
+    private RandomSource random;
+    private GameMetrics metrics;
+    private final EventBus eventBus = new EventBus();
+    private ForkJoinPool ballPool;
+    //Ball system of the level being played, null if the balls are separate sprites.
+    private BallSystem ballSystem;
+    //Bottom of the lowest block of the level, the balls start under it.
+    private double levelBottom;
+    private LevelProvider levels;
+    private int levelIndex;
+    private ExecutorService levelLoader;
+    private Future<PreparedLevel> nextLevel;
+    private PreparedLevel level;
+    //States of the random source before the current level and the next level were loaded, kept for snapshots.
+    private long levelState;
+    private long nextLevelState;
+    private ReplayWriter recorder;
+    private SampledInput sampler;
 
     /**
      * Constructor for the game, will create a new sprite collection and environment and set the GUI size.
      */
     public Game() {
+        this(new GameConfig());
+    }
+
+    /**
+     * Constructor for the game using custom settings.
+     * @param config - settings of the game.
+     */
+    public Game(GameConfig config) {
+        this.config = config;
         this.sprites = new SpriteCollection();
         this.environment = new GameEnvironment();
-        this.gui = new GUI(Constants.GUI_NAME, Constants.GUI_WIDTH, Constants.GUI_HEIGHT);
+        if (config.isRenderQueue()) {
+            this.renderQueue = new RenderQueue();
+        }
+        if (config.isHeadless()) {
+            this.nullSurface = new NullDrawSurface(Constants.GUI_WIDTH, Constants.GUI_HEIGHT);
+        } else {
+            this.gui = new GUI(Constants.GUI_NAME, Constants.GUI_WIDTH, Constants.GUI_HEIGHT);
+        }
     }
 
     /**
@@ -59,6 +132,14 @@ public class Game {
         this.sprites.addSprite(s);
     }
 
+    /**
+     * Add a new sprite that never changes its look on its own (E.G: blocks), it's drawn from a cached layer.
+     * @param s - static sprite to be added.
+     */
+    public void addStaticSprite(Sprite s) {
+        this.sprites.addStaticSprite(s);
+    }
+
     /**
      * Remove a collidable object from the game environment.
      * @param c - collidable to be removed.
@@ -76,51 +157,285 @@ public class Game {
     }
 
     /**
-     * Function to initialize the game's objects.
+     * Remove a brick of the level's brick table from the game, the static layer is redrawn without it.
+     * @param table - table of the brick.
+     * @param id    - id of the brick.
+     */
+    void removeBrick(BrickTable table, int id) {
+        this.environment.removeBrick(table, id);
+        this.sprites.invalidateLayer();
+    }
+
+    /**
+     * Function to initialize the game's objects, using a random source seeded by the game's settings.
      * Will create balls, paddle, blocks etc.
      */
     public void initialize() {
-        this.blockRemover = new BlockRemover(this, new Counter());
-        this.ballRemover = new BallRemover(this, new Counter());
-        this.scoreIndicator = new ScoreIndicator(new Counter());
+        initialize(new RandomSource(this.config.getSeed()));
+    }
+
+    /**
+     * Function to initialize the game's objects.
+     * Will create balls, paddle, blocks etc.
+     * @param randomSource - source of every random value of the game, the same seed creates the same game.
+     */
+    public void initialize(RandomSource randomSource) {
+        setUp(randomSource);
+        if (this.config.getRecordFile() != null) {
+            try {
+                this.recorder = ReplayWriter.open(this.config.getRecordFile(), randomSource.getState(), this.config);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create the replay log " + this.config.getRecordFile(), e);
+            }
+            this.input = new RecordingInput(this.input, this.recorder);
+        }
+        //The first level is prepared right away, the next ones while the previous level is played.
+        this.levelState = this.random.getState();
+        startLevel(prepareLevel(this.levelIndex), null);
+    }
+
+    /**
+     * Initialize the game at the state saved in a snapshot, the game continues exactly like the game the snapshot
+     * was taken from as long as it gets the same input.
+     * @param randomSource - random source created the same way as the one of the game the snapshot was taken from.
+     * @param snapshot     - state of the game to continue from.
+     */
+    public void restore(RandomSource randomSource, GameSnapshot snapshot) {
+        setUp(randomSource);
+        this.levelIndex = snapshot.getLevelIndex();
+        this.tickCount = snapshot.getTick();
+        //Load the level from the same random values it was first loaded from.
+        this.levelState = snapshot.getLevelState();
+        this.random.setState(this.levelState);
+        startLevel(prepareLevel(this.levelIndex), snapshot);
+    }
+
+    /**
+     * Create the objects shared by every level of the game: the input, the listeners and the level provider.
+     * @param randomSource - source of every random value of the game.
+     */
+    private void setUp(RandomSource randomSource) {
+        if (this.config.getInputSource() != null) {
+            this.input = this.config.getInputSource();
+        } else if (this.gui != null && this.config.getInputSampleRate() > 0) {
+            this.sampler = new SampledInput(new KeyboardInput(this.gui.getKeyboardSensor()),
+                    this.config.getInputSampleRate());
+            this.sampler.start();
+            this.input = this.sampler;
+        } else if (this.gui != null) {
+            this.input = new KeyboardInput(this.gui.getKeyboardSensor());
+        } else {
+            this.input = new FollowBallInput(this);
+        }
+        this.random = randomSource;
+        this.blockRemover = new BlockRemover(this, newCounter());
+        this.ballRemover = new BallRemover(this, newCounter());
+        this.powerUpSpawner = new PowerUpSpawner(this);
+        this.scoreIndicator = new ScoreIndicator(newCounter());
         this.scoreTrackingListener = new ScoreTrackingListener(this.scoreIndicator.getScoreCounter());
+        //The listeners are notified of the events of every brick and ball of every level.
+        this.eventBus.subscribe(EventBus.BLOCK_HIT, this.blockRemover);
+        this.eventBus.subscribe(EventBus.BLOCK_HIT, this.scoreTrackingListener);
+        this.eventBus.subscribe(EventBus.BLOCK_HIT, this.powerUpSpawner);
+        this.eventBus.subscribe(EventBus.BALL_EXIT, this.ballRemover);
+        this.levels = createLevelProvider();
+        this.levelIndex = this.config.getLevelIndex();
+        if (this.levelIndex >= this.levels.getLevelCount()) {
+            throw new IllegalArgumentException("No level " + this.levelIndex + " out of "
+                    + this.levels.getLevelCount() + " levels");
+        }
+    }
+
+    /**
+     * Create the source of the game's levels from the game's settings.
+     * @return - the configured provider, the level file's levels or generated levels.
+     */
+    private LevelProvider createLevelProvider() {
+        if (this.config.getLevelProvider() != null) {
+            return this.config.getLevelProvider();
+        }
+        if (this.config.getLevelFile() != null) {
+            try {
+                return LevelProvider.open(this.config.getLevelFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open the level file " + this.config.getLevelFile(), e);
+            }
+        }
+        return new GeneratedLevelProvider(this.config.getLevelsAmount(), this.config.getRows(), this.random);
+    }
+
+    /**
+     * Build a level: its bounds, its blocks, the collision grid and the static layer of a GUI. Only touches objects
+     * of the new level, so it can run on a background thread while another level is played.
+     * @param index - index of the level.
+     * @return - level that is ready to be played.
+     */
+    private PreparedLevel prepareLevel(int index) {
+        PreparedLevel level = new PreparedLevel(this.eventBus);
         //Create the boundaries of the GUI.
-        generateBounds();
-        //Create the blocks.
-        generateBlocks(Constants.NUM_OF_ROWS, Constants.BLOCK_WIDTH, Constants.BLOCK_HEIGHT,
-                Constants.BOUNDS_WIDTH, Constants.BOUNDS_HEIGHT, Constants.GUI_WIDTH);
+        generateBounds(level);
+        //Create the blocks, their hits are published to the game's event bus.
+        this.levels.load(index, level::addBrick);
+        //A headless game never shows its frames, so the static layer is only drawn ahead of time for the GUI.
+        if (this.gui != null) {
+            level.getSprites().prepareLayer(Constants.GUI_WIDTH, Constants.GUI_HEIGHT);
+        }
+        return level;
+    }
+
+    /**
+     * Start playing a prepared level: create its paddle and balls, then start preparing the next level.
+     * @param prepared - level to be played.
+     * @param snapshot - state to continue the level from, null to start the level from the beginning.
+     */
+    private void startLevel(PreparedLevel prepared, GameSnapshot snapshot) {
+        this.level = prepared;
+        this.environment = prepared.getEnvironment();
+        this.environment.bindToCurrentThread();
+        this.environment.setMetrics(this.metrics);
+        this.sprites = prepared.getSprites();
+        this.sprites.setRenderQueue(this.renderQueue);
+        this.levelBottom = prepared.getBottom();
+        this.blockRemover.getRemainingBlocks().increase(prepared.getBreakableCount());
+        this.ballSystem = null;
         //Create the paddle.
         generatePaddle();
         //Create the ball.
-        generateBalls();
+        if (snapshot == null) {
+            generateBalls();
+        } else {
+            restoreLevelState(snapshot);
+        }
         this.scoreIndicator.addToGame(this);
+        this.nextLevelState = this.random.getState();
+        //The balls already drew their random values, so the next level may draw its own on the loader thread.
+        if (this.levelIndex + 1 < this.levels.getLevelCount()) {
+            if (this.levelLoader == null) {
+                this.levelLoader = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "level-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            int next = this.levelIndex + 1;
+            this.nextLevel = this.levelLoader.submit(() -> prepareLevel(next));
+        }
+    }
+
+    /**
+     * Move on to the next level once the current one is cleared. The next level was prepared in the background, so
+     * only the paddle and the balls are created here.
+     */
+    private void advanceLevel() {
+        PreparedLevel level;
+        try {
+            level = this.nextLevel.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Loading the next level was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load the next level", e.getCause());
+        }
+        this.nextLevel = null;
+        this.levelIndex++;
+        this.levelState = this.nextLevelState;
+        //The balls left from the cleared level don't move on with the player.
+        Counter remainingBalls = this.ballRemover.getRemainingBalls();
+        remainingBalls.decrease(remainingBalls.getValue());
+        this.balls.clear();
+        startLevel(level, null);
+    }
+
+    /**
+     * Bring the level that was just started to the state saved in a snapshot: break the broken bricks, damage the
+     * others, move the paddle and create the balls that were left.
+     * @param snapshot - state of the game.
+     */
+    private void restoreLevelState(GameSnapshot snapshot) {
+        BrickTable table = this.level.getBrickTable();
+        if (table.size() != snapshot.getBrickCount()) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.getBrickCount() + " bricks but the level has "
+                    + table.size());
+        }
+        for (int i = 0; i < table.size(); i++) {
+            if (snapshot.isBroken(i)) {
+                removeBrick(table, i);
+                this.blockRemover.getRemainingBlocks().decrease(1);
+            } else {
+                table.setHitPoints(i, snapshot.getHitPoints(i));
+            }
+        }
+        this.paddle.moveTo(snapshot.getPaddleX());
+        this.scoreTrackingListener.getScoreCounter().increase(snapshot.getScore());
+        List<Ball> restored = new ArrayList<>(snapshot.getBallCount());
+        for (int i = 0; i < snapshot.getBallCount(); i++) {
+            restored.add(new Ball(new Point(snapshot.getBallX(i), snapshot.getBallY(i)), snapshot.getBallRadius(i),
+                    Palette.colorOf(snapshot.getBallColor(i)),
+                    new Velocity(snapshot.getBallDx(i), snapshot.getBallDy(i))));
+        }
+        addBalls(restored);
+        //The next level is loaded from the same random values as in the game the snapshot was taken from.
+        this.random.setState(snapshot.getNextLevelState());
+    }
+
+    /**
+     * Save the state of the game between two ticks.
+     * @return - snapshot the game can be restored from with {@link #restore(RandomSource, GameSnapshot)}.
+     */
+    public GameSnapshot snapshot() {
+        BrickTable bricks = this.level.getBrickTable();
+        byte[] hitPoints = new byte[bricks.size()];
+        for (int i = 0; i < hitPoints.length; i++) {
+            hitPoints[i] = (byte) bricks.getHitPoints(i);
+        }
+        List<Ball> live = new ArrayList<>();
+        for (Ball ball : this.balls) {
+            if (!ball.isRemoved()) {
+                live.add(ball);
+            }
+        }
+        double[] x = new double[live.size()], y = new double[live.size()];
+        double[] dx = new double[live.size()], dy = new double[live.size()];
+        int[] radius = new int[live.size()], color = new int[live.size()];
+        for (int i = 0; i < live.size(); i++) {
+            Ball ball = live.get(i);
+            x[i] = ball.centerX();
+            y[i] = ball.centerY();
+            dx[i] = ball.getDx();
+            dy[i] = ball.getDy();
+            radius[i] = ball.getSize();
+            color[i] = ball.getColor().getRGB();
+        }
+        return new GameSnapshot(this.tickCount, this.levelIndex, this.levelState, this.nextLevelState, getScore(),
+                this.paddle.getCollisionRectangle().getMinX(), hitPoints, x, y, dx, dy, radius, color);
     }
 
     /**
      * Generate blocks to be the boundaries and background of the GUI.
+     * @param level - level the blocks are added to.
      */
-    private void generateBounds() {
+    private void generateBounds(PreparedLevel level) {
         //Background
         Rectangle backgroundRect = new Rectangle(new Point(0, Constants.SCORE_FONT_SIZE), Constants.GUI_WIDTH,
                 Constants.GUI_HEIGHT);
         Block backgroundBlock = new Block(backgroundRect, Constants.BACKGROUND_COLOR);
-        backgroundBlock.addBackground(this);
+        level.addBackground(backgroundBlock);
         //Left boundary.
         Rectangle leftRec = new Rectangle(new Point(0, Constants.SCORE_FONT_SIZE),
                 Constants.BOUNDS_WIDTH, Constants.GUI_HEIGHT);
         Block leftBound = new Block(leftRec, Constants.BOUNDS_COLOR);
-        leftBound.addToGame(this);
+        level.addBlock(leftBound);
         //Right boundary.
         Rectangle rightRec = new Rectangle(
                 new Point(Constants.GUI_WIDTH - Constants.BOUNDS_HEIGHT, Constants.SCORE_FONT_SIZE),
                 Constants.BOUNDS_WIDTH, Constants.GUI_HEIGHT);
         Block rightBound = new Block(rightRec, Constants.BOUNDS_COLOR);
-        rightBound.addToGame(this);
+        level.addBlock(rightBound);
         //Upper boundary.
         Rectangle topRec = new Rectangle(new Point(0, Constants.SCORE_FONT_SIZE), Constants.GUI_WIDTH,
                 Constants.BOUNDS_HEIGHT);
         Block topBound = new Block(topRec, Constants.BOUNDS_COLOR);
-        topBound.addToGame(this);
+        level.addBlock(topBound);
         //For debugging - regular bottom boundary.
         //Rectangle bottomRec = new Rectangle(new Point(0, Constants.GUI_HEIGHT + 10),Constants.GUI_WIDTH,
         // Constants.BOUNDS_HEIGHT);
@@ -129,21 +444,63 @@ public class Game {
                 Constants.GUI_WIDTH, Constants.BOUNDS_HEIGHT);
         Block bottomBound = new Block(bottomRec, Constants.BOUNDS_COLOR);
         bottomBound.setDeathBlock(true);
-        bottomBound.addToGame(this);
+        level.addBlock(bottomBound);
     }
 
     /**
      * Generate balls for the game.
      */
     private void generateBalls() {
-        this.ballRemover.getRemainingBalls().increase(Constants.BALLS_AMOUNT);
-        Ball[] ballsArray = new Ball[Constants.BALLS_AMOUNT];
-        for (int i = 0; i < ballsArray.length; i++) {
-            Point startPos = Point.randomPoint(Constants.MIN_X, Constants.MAX_X, Constants.MIN_Y, Constants.MAX_Y);
-            Ball ball = new Ball(startPos, Constants.DEFAULT_RADIUS, randomColor(), Velocity.randomVelocity());
+        int ballsAmount = this.config.getBallsAmount();
+        //Balls start under the lowest block of the level, at the same height as the original layout.
+        int minY = Math.min(Constants.MAX_Y, (int) Math.ceil(this.levelBottom) + Constants.DEFAULT_RADIUS - 1);
+        List<Ball> generated = new ArrayList<>(ballsAmount);
+        for (int i = 0; i < ballsAmount; i++) {
+            Point startPos = Point.randomPoint(this.random, Constants.MIN_X, Constants.MAX_X, minY, Constants.MAX_Y);
+            generated.add(new Ball(startPos, Constants.DEFAULT_RADIUS, randomColor(),
+                    Velocity.randomVelocity(this.random)));
+        }
+        addBalls(generated);
+    }
+
+    /**
+     * Add a ball to the level being played (E.G: a ball dropped by a power up).
+     * @param ball - ball to be added.
+     */
+    public void addBall(Ball ball) {
+        addBalls(List.of(ball));
+    }
+
+    /**
+     * Add balls to the level, as separate sprites or in a single ball system depending on the game's settings.
+     * @param newBalls - balls to be added, in order.
+     */
+    private void addBalls(List<Ball> newBalls) {
+        this.ballRemover.getRemainingBalls().increase(newBalls.size());
+        boolean parallel = this.config.getParallelism() > 0;
+        boolean created = false;
+        if (this.ballSystem == null && (this.config.isBallSystem() || parallel)) {
+            this.ballSystem = new BallSystem(this.environment);
+            if (parallel) {
+                if (this.ballPool == null) {
+                    this.ballPool = new ForkJoinPool(this.config.getParallelism());
+                }
+                this.ballSystem.setPool(this.ballPool);
+            }
+            created = true;
+        }
+        for (Ball ball : newBalls) {
             ball.setGameEnvironment(this.environment);
-            ball.addToGame(this);
-            ball.addHitListener(this.ballRemover);
+            this.balls.add(ball);
+            if (this.ballSystem != null) {
+                this.ballSystem.add(ball);
+            } else {
+                ball.addToGame(this);
+            }
+        }
+        //All the balls of the level are updated and drawn by the system as a single sprite.
+        if (created) {
+            this.ballSystem.addToGame(this);
         }
     }
 
@@ -155,74 +512,289 @@ public class Game {
         Point topLeft = new Point((double) (Constants.GUI_WIDTH - Constants.PADDLE_WIDTH) / 2,
                 Constants.GUI_HEIGHT - Constants.BOUNDS_HEIGHT -  Constants.PADDLE_HEIGHT);
         Rectangle paddleRec = new Rectangle(topLeft, Constants.PADDLE_WIDTH, Constants.PADDLE_HEIGHT);
-        Paddle paddle = new Paddle(new Block(paddleRec, Constants.PADDLE_COLOR), this.gui, this.environment);
-        paddle.addToGame(this);
+        this.paddle = new Paddle(new Block(paddleRec, Constants.PADDLE_COLOR), this.input, Constants.GUI_WIDTH,
+                this.environment);
+        this.paddle.setZones(PaddleZones.of(this.config.getPaddleZones()));
+        this.paddle.addToGame(this);
     }
 
     /**
-     * Generate blocks to be on the top part of the gui.
-     *
-     * @param rowsAmount - amount of rows of blocks to create.
-     * @param blockW     - width of the blocks.
-     * @param blockH     - height of the blocks.
-     * @param boundW     - width of the GUI boundaries.
-     * @param boundH     - height of the GUI boundaries.
-     * @param guiWidth   - total width of the gui.
+     * Function to start the animation of the game.
+     * A headless game runs its ticks back to back as fast as possible and reports the simulation rate.
      */
-    public void generateBlocks(int rowsAmount, int blockW, int blockH, int boundW, int boundH, int guiWidth) {
-        //Generate several rows and columns of random colored blocks.
-        for (int j = 0; j < rowsAmount; j++) {
-            //generate row of blocks.
-            Color color = randomColor();
-            for (int i = 0; i < rowsAmount * 2 - j; i++) {
-                double xValue = guiWidth - ((i + 1) * blockW + boundW);
-                double yValue = (j + 3) * blockH + boundH + 1;
-                Rectangle rec = new Rectangle(new Point(xValue, yValue), blockW, blockH);
-                Block block = new Block(rec, color);
-                block.addHitListener(this.blockRemover);
-                block.addHitListener(this.scoreTrackingListener);
-                block.addToGame(this);
+    public void run() {
+        List<MetricsSink> sinks = this.config.getMetricsSinks();
+        if (!sinks.isEmpty()) {
+            this.metrics = new GameMetrics();
+            this.environment.setMetrics(this.metrics);
+            if (this.sampler != null) {
+                this.sampler.setMetrics(this.metrics);
+            }
+            for (MetricsSink sink : sinks) {
+                sink.gameStarted(this.metrics);
             }
         }
-        //Calculate the amount of blocks and update the counter.
-        this.blockRemover.getRemainingBlocks().increase((3 * rowsAmount * rowsAmount + rowsAmount) / 2);
+        if (this.gui == null) {
+            runHeadless();
+        } else {
+            runRealTime();
+        }
+        //Add extra points for clearing all the blocks (if needed).
+        if (blockRemover.getRemainingBlocks().getValue() <= 0) {
+            this.scoreTrackingListener.levelCleared();
+        }
+        if (this.config.isVerbose() && ballRemover.getRemainingBalls().getValue() <= 0) {
+            System.out.println("Player lost. " + scoreTrackingListener.toString());
+        }
+        if (this.config.isVerbose() && blockRemover.getRemainingBlocks().getValue() <= 0) {
+            System.out.println("Player won! " + scoreTrackingListener.toString());
+        }
+        if (this.metrics != null) {
+            for (MetricsSink sink : sinks) {
+                sink.gameEnded(this.metrics);
+            }
+        }
+        if (this.ballPool != null) {
+            this.ballPool.shutdown();
+        }
+        if (this.sampler != null) {
+            this.sampler.stop();
+        }
+        if (this.levelLoader != null) {
+            this.levelLoader.shutdownNow();
+        }
+        if (this.recorder != null) {
+            try {
+                this.recorder.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close the replay log " + this.config.getRecordFile(), e);
+            }
+        }
+        //Close the gui window.
+        if (this.gui != null) {
+            this.gui.close();
+        }
     }
 
     /**
-     * Function to start the animation of the game.
+     * Run the game in real time on the GUI.
+     * The physics runs in fixed ticks driven by an accumulator of elapsed time, independent of the rendering: a slow
+     * frame is followed by several ticks to catch up, and frames are skipped while the physics is falling behind.
      */
-    public void run() {
-        //Start the GUI and sleeper.
+    private void runRealTime() {
         Sleeper sleeper = new Sleeper();
-        //Set FPS.
-        int framesPerSecond = 60;
-        int millisecondsPerFrame = 1000 / framesPerSecond;
+        long tickNanos = NANOS_PER_SECOND / this.config.getTicksPerSecond();
+        long frameNanos = NANOS_PER_SECOND / this.config.getFramesPerSecond();
+        int maxTicksPerFrame = this.config.getMaxTicksPerFrame();
+        long previousTime = System.nanoTime();
+        long nextFrameTime = previousTime;
+        long accumulator = 0;
+        int skippedFrames = 0;
         //Start animation. End the animation when there are no blocks remaining.
-        while (blockRemover.getRemainingBlocks().getValue() > 0 && ballRemover.getRemainingBalls().getValue() > 0) {
-            long startTime = System.currentTimeMillis(); // timing
-            DrawSurface d = gui.getDrawSurface();
-            this.sprites.drawAllOn(d);
-            gui.show(d);
-            this.sprites.notifyAllTimePassed();
-            // timing
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
-            if (milliSecondLeftToSleep > 0) {
-                sleeper.sleepFor(milliSecondLeftToSleep);
+        while (isRunning()) {
+            long now = System.nanoTime();
+            accumulator += now - previousTime;
+            previousTime = now;
+            //Run the physics ticks that are due, up to the limit for a single frame.
+            int ticks = 0;
+            while (accumulator >= tickNanos && ticks < maxTicksPerFrame && isRunning()) {
+                tick();
+                accumulator -= tickNanos;
+                ticks++;
+            }
+            boolean behind = accumulator >= tickNanos;
+            if (now >= nextFrameTime) {
+                if (behind && skippedFrames < Constants.MAX_FRAME_SKIP) {
+                    //Skip drawing and use the time to catch up with the physics.
+                    skippedFrames++;
+                } else {
+                    render();
+                    skippedFrames = 0;
+                    //Too far behind to catch up, drop the backlog instead of slowing down forever.
+                    if (behind) {
+                        accumulator = 0;
+                    }
+                }
+                nextFrameTime = Math.max(nextFrameTime + frameNanos, now);
+            }
+            //Sleep until the next tick or frame is due.
+            long wait = Math.min(nextFrameTime - System.nanoTime(), tickNanos - accumulator) / NANOS_PER_MILLI;
+            if (wait > 0) {
+                sleeper.sleepFor(wait);
             }
         }
-        //Add extra points for clearing all the blocks (if needed).
-        if (blockRemover.getRemainingBlocks().getValue() <= 0) {
+    }
+
+    /**
+     * Run the game without a window, every tick right after the previous one.
+     * Frames are still drawn (on a surface that ignores them) at the configured ratio of frames to ticks.
+     */
+    private void runHeadless() {
+        int ticksPerFrame = Math.max(1, this.config.getTicksPerSecond() / this.config.getFramesPerSecond());
+        long startTime = System.nanoTime();
+        //A restored game doesn't start from tick 0.
+        long startTick = this.tickCount;
+        while (isRunning()) {
+            tick();
+            if (this.tickCount % ticksPerFrame == 0) {
+                render();
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - startTime);
+        this.ticksPerSecond = (this.tickCount - startTick) * (double) NANOS_PER_SECOND / elapsed;
+        if (this.config.isVerbose()) {
+            System.out.printf("Simulated %d ticks in %.1f ms (%.0f ticks per second).%n",
+                    this.tickCount - startTick, elapsed / (double) NANOS_PER_MILLI, this.ticksPerSecond);
+            if (this.renderQueue != null) {
+                System.out.printf("Render queue drew %d commands with %d color changes in the last frame.%n",
+                        this.renderQueue.getCommands(), this.renderQueue.getColorChanges());
+            }
+        }
+    }
+
+    /**
+     * Run ticks of the game without drawing anything (E.G: to seek a replay to a tick), stops early if the game ends.
+     * @param ticks - amount of ticks to run.
+     */
+    public void advance(long ticks) {
+        for (long i = 0; i < ticks && isRunning(); i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Check if the game should keep running.
+     * @return - true while there are blocks and balls remaining, otherwise false.
+     */
+    private boolean isRunning() {
+        return blockRemover.getRemainingBlocks().getValue() > 0 && ballRemover.getRemainingBalls().getValue() > 0
+                && (this.paddle == null || !this.paddle.isExitRequested())
+                && (this.config.getMaxTicks() == 0 || this.tickCount < this.config.getMaxTicks());
+    }
+
+    /**
+     * Advance the game by a single physics tick.
+     */
+    private void tick() {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        this.sprites.notifyAllTimePassed();
+        //Apply the hits of this tick (removals, score) after every sprite moved.
+        this.eventBus.drain();
+        this.sprites.compact();
+        this.environment.compact();
+        //Hand the cleared level over to the next one, which was prepared while this level was played.
+        if (this.nextLevel != null && this.blockRemover.getRemainingBlocks().getValue() <= 0) {
             this.scoreTrackingListener.levelCleared();
+            advanceLevel();
         }
-        if (ballRemover.getRemainingBalls().getValue() <= 0) {
-            System.out.println("Player lost. " + scoreTrackingListener.toString());
+        if (this.metrics != null) {
+            this.metrics.recordUpdate(System.nanoTime() - start);
         }
-        if (blockRemover.getRemainingBlocks().getValue() <= 0) {
-            System.out.println("Player won! " + scoreTrackingListener.toString());
+        this.tickCount++;
+        if (this.recorder != null && this.tickCount % this.config.getSnapshotInterval() == 0) {
+            try {
+                this.recorder.writeSnapshot(snapshot());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write a snapshot to the replay log", e);
+            }
         }
-        //Close the gui window.
-        this.gui.close();
+    }
+
+    /**
+     * Draw a single frame of the game on the GUI, or on the empty surface when headless.
+     */
+    private void render() {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        if (this.gui == null) {
+            this.sprites.drawAllOn(this.nullSurface);
+        } else {
+            DrawSurface d = gui.getDrawSurface();
+            this.sprites.drawAllOn(d);
+            gui.show(d);
+        }
+        if (this.metrics != null) {
+            this.metrics.recordRender(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Getter for the game's event bus, blocks and balls in the game publish their hits to it.
+     * @return - event bus of the game.
+     */
+    public EventBus getEventBus() {
+        return this.eventBus;
+    }
+
+    /**
+     * Getter for the paddle of the game.
+     * @return - the paddle, null before the game is initialized.
+     */
+    public Paddle getPaddle() {
+        return this.paddle;
+    }
+
+    /**
+     * Getter for the index of the level being played.
+     * @return - index of the level.
+     */
+    public int getLevelIndex() {
+        return this.levelIndex;
+    }
+
+    /**
+     * Getter for the balls created for the current level, including balls that were already removed.
+     * @return - list of balls.
+     */
+    public List<Ball> getBalls() {
+        return this.balls;
+    }
+
+    /**
+     * Getter for the user's score.
+     * @return - current score.
+     */
+    public int getScore() {
+        return this.scoreTrackingListener.getScoreCounter().getValue();
+    }
+
+    /**
+     * Getter for the amount of blocks left to clear.
+     * @return - amount of remaining blocks.
+     */
+    public int getRemainingBlocks() {
+        return this.blockRemover.getRemainingBlocks().getValue();
+    }
+
+    /**
+     * Getter for the amount of balls left in the game.
+     * @return - amount of remaining balls.
+     */
+    public int getRemainingBalls() {
+        return this.ballRemover.getRemainingBalls().getValue();
+    }
+
+    /**
+     * Getter for the amount of ticks the game ran.
+     * @return - amount of ticks.
+     */
+    public long getTickCount() {
+        return this.tickCount;
+    }
+
+    /**
+     * Getter for the simulation rate measured by the last headless run.
+     * @return - ticks per second, 0 if the game didn't run headless.
+     */
+    public double getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Create a counter starting at 0, thread safe if the game's settings ask for it.
+     * @return - new counter.
+     */
+    private Counter newCounter() {
+        return this.config.isThreadSafeCounters() ? new StripedCounter() : new IntCounter();
     }
 
     /**
@@ -231,11 +803,10 @@ public class Game {
      * @return - random color.
      */
     private Color randomColor() {
-        Random random = new Random();
         // Generates a value between 0 and 255 for red, green and blue.
-        int red = random.nextInt(256);
-        int green = random.nextInt(256);
-        int blue = random.nextInt(256);
+        int red = this.random.nextInt(256);
+        int green = this.random.nextInt(256);
+        int blue = this.random.nextInt(256);
         return new Color(red, green, blue);
     }
 
@@ -0,0 +1,484 @@
+package game;
+
+import input.InputSource;
+import level.LevelProvider;
+import metrics.MetricsSink;
+import util.Constants;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Class to hold the settings of a single game, every game instance has its own configuration.
+ * @author Yuval Anteby
+ */
+public class GameConfig {
+    private boolean ballSystem;
+    private int ticksPerSecond;
+    private int framesPerSecond;
+    private int maxTicksPerFrame;
+    private boolean headless;
+    private InputSource inputSource;
+    private long maxTicks;
+    private long seed;
+    private int rows;
+    private int ballsAmount;
+    private boolean verbose;
+    private boolean threadSafeCounters;
+    private int parallelism;
+    private Path levelFile;
+    private int levelIndex;
+    private int levelsAmount;
+    private LevelProvider levelProvider;
+    private Path recordFile;
+    private int snapshotInterval;
+    private int paddleZones;
+    private int inputSampleRate;
+    private boolean renderQueue;
+    private final List<MetricsSink> metricsSinks = new ArrayList<>();
+
+    /**
+     * Default constructor, creates the settings of a regular game.
+     */
+    public GameConfig() {
+        this.ballSystem = false;
+        this.ticksPerSecond = Constants.TICKS_PER_SECOND;
+        this.framesPerSecond = Constants.FRAMES_PER_SECOND;
+        this.maxTicksPerFrame = Constants.MAX_TICKS_PER_FRAME;
+        this.headless = false;
+        this.inputSource = null;
+        this.maxTicks = 0;
+        this.seed = new SplittableRandom().nextLong();
+        this.rows = Constants.NUM_OF_ROWS;
+        this.ballsAmount = Constants.BALLS_AMOUNT;
+        this.verbose = true;
+        this.threadSafeCounters = false;
+        this.parallelism = 0;
+        this.levelFile = null;
+        this.levelIndex = 0;
+        this.levelsAmount = 1;
+        this.levelProvider = null;
+        this.recordFile = null;
+        this.snapshotInterval = Constants.SNAPSHOT_INTERVAL;
+        this.paddleZones = Constants.PADDLE_ZONES;
+        this.inputSampleRate = Constants.INPUT_SAMPLE_RATE;
+        this.renderQueue = true;
+    }
+
+    /**
+     * Check if the balls are stored in a single {@link geometry.BallSystem} instead of being separate sprites.
+     * @return - true if the game uses a ball system, otherwise false.
+     */
+    public boolean isBallSystem() {
+        return this.ballSystem;
+    }
+
+    /**
+     * Set if the balls should be stored in a single {@link geometry.BallSystem}.
+     * Meant for games with a very large amount of balls.
+     * @param useBallSystem - true to use a ball system, false for separate ball sprites.
+     */
+    public void setBallSystem(boolean useBallSystem) {
+        this.ballSystem = useBallSystem;
+    }
+
+    /**
+     * Check if the moving sprites are drawn through a {@link graphics.RenderQueue}.
+     * @return - true if the draw calls are batched by color, otherwise false.
+     */
+    public boolean isRenderQueue() {
+        return this.renderQueue;
+    }
+
+    /**
+     * Set if the moving sprites should be drawn through a {@link graphics.RenderQueue}, which sorts their draw calls
+     * by color so the color of the surface changes once per color instead of twice per sprite.
+     * @param useRenderQueue - true to batch the draw calls, false to draw every sprite directly.
+     */
+    public void setRenderQueue(boolean useRenderQueue) {
+        this.renderQueue = useRenderQueue;
+    }
+
+    /**
+     * Getter for the amount of physics ticks per second.
+     * @return - physics ticks per second.
+     */
+    public int getTicksPerSecond() {
+        return this.ticksPerSecond;
+    }
+
+    /**
+     * Set the amount of physics ticks per second, every tick moves the balls and paddle by one step.
+     * @param ticks - physics ticks per second, must be positive.
+     */
+    public void setTicksPerSecond(int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Ticks per second must be positive");
+        }
+        this.ticksPerSecond = ticks;
+    }
+
+    /**
+     * Getter for the amount of rendered frames per second.
+     * @return - frames per second.
+     */
+    public int getFramesPerSecond() {
+        return this.framesPerSecond;
+    }
+
+    /**
+     * Set the amount of rendered frames per second.
+     * @param frames - frames per second, must be positive.
+     */
+    public void setFramesPerSecond(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frames per second must be positive");
+        }
+        this.framesPerSecond = frames;
+    }
+
+    /**
+     * Getter for the maximum amount of physics ticks that run between two rendered frames.
+     * @return - maximum ticks per frame.
+     */
+    public int getMaxTicksPerFrame() {
+        return this.maxTicksPerFrame;
+    }
+
+    /**
+     * Set the maximum amount of physics ticks that run between two rendered frames.
+     * @param ticks - maximum ticks per frame, must be positive.
+     */
+    public void setMaxTicksPerFrame(int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Ticks per frame must be positive");
+        }
+        this.maxTicksPerFrame = ticks;
+    }
+
+    /**
+     * Check if the game runs without a window.
+     * @return - true if the game is headless, otherwise false.
+     */
+    public boolean isHeadless() {
+        return this.headless;
+    }
+
+    /**
+     * Set if the game runs without a window. A headless game draws on a surface that ignores the drawing and runs
+     * its ticks as fast as possible, without waiting between them.
+     * @param runHeadless - true to run without a window.
+     */
+    public void setHeadless(boolean runHeadless) {
+        this.headless = runHeadless;
+    }
+
+    /**
+     * Getter for the source of the paddle's commands.
+     * @return - input source, null for the default (the keyboard, or a simple AI when headless).
+     */
+    public InputSource getInputSource() {
+        return this.inputSource;
+    }
+
+    /**
+     * Set the source of the paddle's commands (E.G: a {@link input.ScriptedInput}).
+     * @param input - input source, null for the default.
+     */
+    public void setInputSource(InputSource input) {
+        this.inputSource = input;
+    }
+
+    /**
+     * Getter for the maximum amount of ticks the game runs.
+     * @return - maximum amount of ticks, 0 for no limit.
+     */
+    public long getMaxTicks() {
+        return this.maxTicks;
+    }
+
+    /**
+     * Set the maximum amount of ticks the game runs, the game ends when it's reached.
+     * @param ticks - maximum amount of ticks, 0 for no limit.
+     */
+    public void setMaxTicks(long ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Max ticks can't be negative");
+        }
+        this.maxTicks = ticks;
+    }
+
+    /**
+     * Getter for the seed of the game's random generator.
+     * @return - seed of the game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Set the seed of the game's random generator, games with the same seed and settings start the same way.
+     * @param newSeed - seed of the game.
+     */
+    public void setSeed(long newSeed) {
+        this.seed = newSeed;
+    }
+
+    /**
+     * Getter for the amount of rows of blocks.
+     * @return - amount of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Set the amount of rows of blocks in the level.
+     * @param amount - amount of rows, must be positive.
+     */
+    public void setRows(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Rows amount must be positive");
+        }
+        this.rows = amount;
+    }
+
+    /**
+     * Getter for the starting amount of balls.
+     * @return - amount of balls.
+     */
+    public int getBallsAmount() {
+        return this.ballsAmount;
+    }
+
+    /**
+     * Set the starting amount of balls.
+     * @param amount - amount of balls, must be positive.
+     */
+    public void setBallsAmount(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Balls amount must be positive");
+        }
+        this.ballsAmount = amount;
+    }
+
+    /**
+     * Check if the game prints its result when it ends.
+     * @return - true if the game prints messages, otherwise false.
+     */
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    /**
+     * Set if the game prints its result when it ends, batch runs turn it off.
+     * @param printMessages - true to print messages.
+     */
+    public void setVerbose(boolean printMessages) {
+        this.verbose = printMessages;
+    }
+
+    /**
+     * Add a destination for the game's metrics, the game loop is only measured if there is at least one sink.
+     * @param sink - sink to be added.
+     */
+    public void addMetricsSink(MetricsSink sink) {
+        if (sink != null) {
+            this.metricsSinks.add(sink);
+        }
+    }
+
+    /**
+     * Getter for the destinations of the game's metrics.
+     * @return - read only list of the sinks.
+     */
+    public List<MetricsSink> getMetricsSinks() {
+        return Collections.unmodifiableList(this.metricsSinks);
+    }
+
+    /**
+     * Check if the score and the remaining blocks and balls are counted by thread safe counters.
+     * @return - true if the game uses {@link util.StripedCounter}, false for {@link util.IntCounter}.
+     */
+    public boolean isThreadSafeCounters() {
+        return this.threadSafeCounters;
+    }
+
+    /**
+     * Set if the score and the remaining blocks and balls should be counted by thread safe counters.
+     * Needed when the hit listeners are called by several threads at once.
+     * @param useThreadSafeCounters - true for thread safe counters.
+     */
+    public void setThreadSafeCounters(boolean useThreadSafeCounters) {
+        this.threadSafeCounters = useThreadSafeCounters;
+    }
+
+    /**
+     * Getter for the amount of threads the balls look for their collisions with.
+     * @return - amount of threads, 0 if the balls are updated on the game's thread only.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the amount of threads the balls look for their collisions with. A positive amount stores the balls in a
+     * {@link geometry.BallSystem} stepped in parallel, the results are the same as the serial update for any seed.
+     * @param threads - amount of threads, 0 to update the balls on the game's thread only.
+     */
+    public void setParallelism(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Parallelism can't be negative");
+        }
+        this.parallelism = threads;
+    }
+
+    /**
+     * Getter for the file the level's blocks are loaded from.
+     * @return - level file, null if the default layout of blocks is generated.
+     */
+    public Path getLevelFile() {
+        return this.levelFile;
+    }
+
+    /**
+     * Set the file the level's blocks are loaded from, a ".txt" file is read as the text format and any other file
+     * as a binary level pack.
+     * @param file - level file, null to generate the default layout of blocks.
+     */
+    public void setLevelFile(Path file) {
+        this.levelFile = file;
+    }
+
+    /**
+     * Getter for the index of the first level to be played.
+     * @return - index of the level.
+     */
+    public int getLevelIndex() {
+        return this.levelIndex;
+    }
+
+    /**
+     * Set the index of the first level to be played, the game goes on with the following levels as they're cleared.
+     * @param index - index of the level, not negative.
+     */
+    public void setLevelIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Level index can't be negative");
+        }
+        this.levelIndex = index;
+    }
+
+    /**
+     * Getter for the amount of levels generated when there is no level file or provider.
+     * @return - amount of generated levels.
+     */
+    public int getLevelsAmount() {
+        return this.levelsAmount;
+    }
+
+    /**
+     * Set the amount of levels generated when there is no level file or provider.
+     * @param amount - amount of levels, must be positive.
+     */
+    public void setLevelsAmount(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Levels amount must be positive");
+        }
+        this.levelsAmount = amount;
+    }
+
+    /**
+     * Getter for the source of the game's levels.
+     * @return - level provider, null if the levels come from the level file or are generated.
+     */
+    public LevelProvider getLevelProvider() {
+        return this.levelProvider;
+    }
+
+    /**
+     * Set the source of the game's levels, it's used instead of the level file.
+     * @param provider - level provider, null to use the level file or generate the levels.
+     */
+    public void setLevelProvider(LevelProvider provider) {
+        this.levelProvider = provider;
+    }
+
+    /**
+     * Getter for the file the game's replay log is recorded to.
+     * @return - path of the replay log, null if the game isn't recorded.
+     */
+    public Path getRecordFile() {
+        return this.recordFile;
+    }
+
+    /**
+     * Record the game's input and snapshots of its state into a replay log (see {@link replay.ReplayLog}).
+     * @param file - path of the replay log, replaced if it exists. Null to stop recording.
+     */
+    public void setRecordFile(Path file) {
+        this.recordFile = file;
+    }
+
+    /**
+     * Getter for the amount of ticks between two snapshots of a recorded game.
+     * @return - ticks between snapshots.
+     */
+    public int getSnapshotInterval() {
+        return this.snapshotInterval;
+    }
+
+    /**
+     * Set the amount of ticks between two snapshots of a recorded game. More snapshots make seeking faster and the
+     * replay log bigger.
+     * @param ticks - ticks between snapshots, must be positive.
+     */
+    public void setSnapshotInterval(int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.snapshotInterval = ticks;
+    }
+
+    /**
+     * Getter for the amount of zones the paddle's top is split into.
+     * @return - amount of paddle zones.
+     */
+    public int getPaddleZones() {
+        return this.paddleZones;
+    }
+
+    /**
+     * Set the amount of zones the paddle's top is split into, every zone sends the ball in its own direction.
+     * @param zones - amount of zones, between {@link PaddleZones#MIN_ZONES} and {@link PaddleZones#MAX_ZONES}.
+     */
+    public void setPaddleZones(int zones) {
+        if (zones < PaddleZones.MIN_ZONES || zones > PaddleZones.MAX_ZONES) {
+            throw new IllegalArgumentException("Paddle zones must be between " + PaddleZones.MIN_ZONES + " and "
+                    + PaddleZones.MAX_ZONES);
+        }
+        this.paddleZones = zones;
+    }
+
+    /**
+     * Getter for the rate the keyboard is sampled at.
+     * @return - samples per second, 0 if the keyboard is read by the game's thread on every tick.
+     */
+    public int getInputSampleRate() {
+        return this.inputSampleRate;
+    }
+
+    /**
+     * Set the rate the keyboard is sampled at, on a thread of its own (see {@link input.SampledInput}).
+     * @param samplesPerSecond - samples per second, 0 to read the keyboard on the game's thread on every tick.
+     */
+    public void setInputSampleRate(int samplesPerSecond) {
+        if (samplesPerSecond < 0) {
+            throw new IllegalArgumentException("Sample rate can't be negative");
+        }
+        this.inputSampleRate = samplesPerSecond;
+    }
+}
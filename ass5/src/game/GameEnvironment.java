@@ -1,35 +1,99 @@
 package game;
 
+import collision.BroadPhase;
+import collision.UniformGridBroadPhase;
+import geometry.Ball;
 import geometry.Line;
 import geometry.Point;
+import geometry.Rectangle;
+import geometry.SegmentHit;
+import metrics.GameMetrics;
 import collision.Collidable;
 import collision.CollisionInfo;
+import physics.Velocity;
+import util.Constants;
+import util.EntityRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Class to calculate collisions of the collidable objects and hold constant variables related to the game.
+ * Collision queries may run on several threads at once while no collidable is added, removed or moved, the queries
+ * made by other threads than the environment's owner are not recorded in the metrics.
+ * The bricks of a level are kept in a {@link BrickTable} instead of being collidable objects of their own. The table
+ * takes a single place among the collidables, so a brick and another object hit at the same moment are ordered as if
+ * every brick was added where the table was.
  * @author Yuval Anteby
  */
 public class GameEnvironment {
 
-    private List<Collidable> collidables;
+    private final EntityRegistry<Collidable> collidables = new EntityRegistry<>();
+    private BroadPhase broadPhase;
+    private BrickTable bricks;
+    //Stands for the bricks among the collidables, null until a brick table is added.
+    private BrickLayer brickLayer;
+    //Reused between queries to avoid creating a new list for every trajectory.
+    private Thread owner = Thread.currentThread();
+    private final Scratch ownerScratch = new Scratch();
+    private final ThreadLocal<Scratch> workerScratch = ThreadLocal.withInitial(Scratch::new);
+    private int maxCollisionIterations = Constants.MAX_COLLISION_ITERATIONS;
+    private GameMetrics metrics;
+    //Amount of times a collidable was added, removed or moved.
+    private long changes;
 
     /**
      * Constructs a {@code GameEnvironment} with the specified list of collidable objects.
      *
-     * @param collidables the list of collidable objects
+     * @param collidables the list of collidable objects, copied into the environment
      */
     public GameEnvironment(List<Collidable> collidables) {
-        this.collidables = collidables;
+        for (Collidable c : collidables) {
+            this.collidables.add(c);
+        }
+        setBroadPhase(defaultBroadPhase());
     }
 
     /**
      * Default constructor for the class, will create an empty array list.
      */
     public GameEnvironment() {
-        this.collidables = new ArrayList<>();
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Create the default broad phase - a uniform grid covering the GUI.
+     * @return - new broad phase.
+     */
+    public static BroadPhase defaultBroadPhase() {
+        return new UniformGridBroadPhase(0, 0, Constants.GUI_WIDTH, Constants.GUI_HEIGHT, Constants.GRID_CELL_SIZE);
+    }
+
+    /**
+     * Change the strategy used to find collision candidates. The new broad phase is filled with the current
+     * collidable objects.
+     * @param newBroadPhase - new broad phase (E.G: {@link collision.BruteForceBroadPhase} as a reference).
+     */
+    public void setBroadPhase(BroadPhase newBroadPhase) {
+        if (newBroadPhase == null) {
+            throw new IllegalArgumentException("Broad phase can't be null");
+        }
+        this.broadPhase = newBroadPhase;
+        for (int i = 0; i < this.collidables.slotCount(); i++) {
+            Collidable c = this.collidables.get(i);
+            if (c != null) {
+                this.broadPhase.add(c);
+            }
+        }
+    }
+
+    /**
+     * Make the calling thread the owner of the environment, its queries are the ones recorded in the metrics.
+     * Used when an environment built on a background thread is handed to the game's thread.
+     */
+    public void bindToCurrentThread() {
+        this.owner = Thread.currentThread();
+        this.broadPhase.bindToCurrentThread();
     }
 
     /**
@@ -37,27 +101,86 @@ public class GameEnvironment {
      * @param c - new collidable object to be added.
      */
     public void addCollidable(Collidable c) {
-        if (c != null) {
-            collidables.add(c);
+        if (collidables.add(c)) {
+            broadPhase.add(c);
+            this.changes++;
+        }
+    }
+
+    /**
+     * Add the bricks of a table to the environment, in the place of the collidables that are added next. The bricks
+     * added to the table later are part of the environment as well.
+     * @param table - table of the level's bricks.
+     */
+    void addBricks(BrickTable table) {
+        if (this.bricks != null) {
+            throw new IllegalArgumentException("The environment already has a brick table");
+        }
+        this.bricks = table;
+        this.brickLayer = new BrickLayer();
+        addCollidable(this.brickLayer);
+    }
+
+    /**
+     * Remove a brick of the environment's brick table, it's no longer hit.
+     * @param table - table of the brick.
+     * @param id    - id of the brick.
+     */
+    void removeBrick(BrickTable table, int id) {
+        if (!table.isRemoved(id)) {
+            table.remove(id);
+            this.changes++;
         }
     }
 
     /**
      * Function to remove collidable objects to the game environment.
+     * Takes constant time, the slot of the removed object is reused after {@link #compact()}.
      * @param c - collidable object to be removed.
      */
     public void removeCollidable(Collidable c) {
+        if (collidables.remove(c)) {
+            broadPhase.remove(c);
+            this.changes++;
+        }
+    }
+
+    /**
+     * Drop the removed collidable objects for good, should be called once the tick is over.
+     */
+    public void compact() {
+        collidables.compact();
+    }
+
+    /**
+     * Function to notify the game environment that a collidable object has moved.
+     * @param c - collidable object that moved.
+     */
+    public void updateCollidable(Collidable c) {
         if (c != null) {
-            collidables.remove(c);
+            broadPhase.update(c);
+            this.changes++;
         }
     }
 
+    /**
+     * Get the amount of times a collidable object was added, removed or moved, collisions found while the amount
+     * stays the same are still valid.
+     * @return - amount of changes to the collidable objects.
+     */
+    public long getChangeCount() {
+        return this.changes;
+    }
+
     /**
      * Getter for collidable list.
-     * @return - list of collidable objects.
+     * @return - new list of the collidable objects, in the order they were added. The bricks of a brick table aren't
+     * in the list.
      */
     public List<Collidable> getCollidables() {
-        return collidables;
+        List<Collidable> list = collidables.toList();
+        list.remove(this.brickLayer);
+        return list;
     }
 
     /**
@@ -67,20 +190,182 @@ public class GameEnvironment {
      * @return - the closest collision point to the start point of the trajectory. If there are no collisions - null.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        CollisionInfo closestCollision = null;
-        double closestDistance = Double.MAX_VALUE;
+        Point start = trajectory.start(), end = trajectory.end();
+        SegmentHit hit = new SegmentHit();
+        Collidable closest = getClosestCollision(start.getX(), start.getY(), end.getX(), end.getY(), hit);
+        if (closest == null) {
+            return null;
+        }
+        return new CollisionInfo(new Point(hit.getX(), hit.getY()), closest);
+    }
 
-        for (Collidable c : collidables) {
-            Point intersection = trajectory.closestIntersectionToStartOfLine(c.getCollisionRectangle());
-            if (intersection != null) {
-                double distance = trajectory.start().distance(intersection);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closestCollision = new CollisionInfo(intersection, c);
-                }
+    /**
+     * Find the closest collision of the segment from (x1, y1) to (x2, y2) without creating any objects.
+     * @param x1  - x value of the start of the trajectory.
+     * @param y1  - y value of the start of the trajectory.
+     * @param x2  - x value of the end of the trajectory.
+     * @param y2  - y value of the end of the trajectory.
+     * @param hit - result to be filled with the closest hit, cleared if there are no collisions.
+     * @return - the collidable object that was hit first, null if there are no collisions.
+     */
+    public Collidable getClosestCollision(double x1, double y1, double x2, double y2, SegmentHit hit) {
+        Scratch scratch = scratch();
+        GameMetrics queryMetrics = scratch == this.ownerScratch ? this.metrics : null;
+        long start = queryMetrics == null ? 0 : System.nanoTime();
+        Collidable closest = null;
+        int tested = 0;
+        hit.clear();
+        this.broadPhase.query(x1, y1, x2, y2, 0, scratch.candidates);
+        for (int i = 0; i < scratch.candidates.size(); i++) {
+            Collidable c = scratch.candidates.get(i);
+            if (c == this.brickLayer) {
+                Collidable brick = closestBrick(x1, y1, x2, y2, 0, false, scratch.bricks, hit);
+                closest = brick != null ? brick : closest;
+                tested += scratch.bricks.getTested();
+                continue;
+            }
+            tested++;
+            if (SegmentHit.segmentBox(x1, y1, x2, y2, c.getMinX(), c.getMinY(), c.getMaxX(), c.getMaxY(),
+                    scratch.probe) && scratch.probe.getT() < hit.getT()) {
+                hit.set(scratch.probe);
+                closest = c;
+            }
+        }
+        if (queryMetrics != null) {
+            queryMetrics.recordQuery(System.nanoTime() - start, tested);
+        }
+        return closest;
+    }
+
+    /**
+     * Find the first collidable object touched by a circle moving from (x1, y1) to (x2, y2), without creating any
+     * objects. Every rectangle is expanded by the radius so fast or small balls can't pass through blocks.
+     * @param x1     - x value of the circle's center at the start.
+     * @param y1     - y value of the circle's center at the start.
+     * @param x2     - x value of the circle's center at the end.
+     * @param y2     - y value of the circle's center at the end.
+     * @param radius - radius of the circle.
+     * @param hit    - result to be filled with the touching point and the center at the closest hit.
+     * @return - the collidable object that was hit first, null if there are no collisions.
+     */
+    public Collidable getClosestCollision(double x1, double y1, double x2, double y2, double radius, SegmentHit hit) {
+        Scratch scratch = scratch();
+        GameMetrics queryMetrics = scratch == this.ownerScratch ? this.metrics : null;
+        long start = queryMetrics == null ? 0 : System.nanoTime();
+        Collidable closest = null;
+        int tested = 0;
+        hit.clear();
+        this.broadPhase.query(x1, y1, x2, y2, radius, scratch.candidates);
+        for (int i = 0; i < scratch.candidates.size(); i++) {
+            Collidable c = scratch.candidates.get(i);
+            if (c == this.brickLayer) {
+                Collidable brick = closestBrick(x1, y1, x2, y2, radius, true, scratch.bricks, hit);
+                closest = brick != null ? brick : closest;
+                tested += scratch.bricks.getTested();
+                continue;
+            }
+            tested++;
+            if (SegmentHit.sweptCircleBox(x1, y1, x2, y2, radius, c.getMinX(), c.getMinY(), c.getMaxX(),
+                    c.getMaxY(), scratch.probe)
+                    && scratch.probe.getT() < hit.getT()) {
+                hit.set(scratch.probe);
+                closest = c;
             }
         }
+        if (queryMetrics != null) {
+            queryMetrics.recordQuery(System.nanoTime() - start, tested);
+        }
+        return closest;
+    }
 
-        return closestCollision;
+    /**
+     * Look for the brick hit first by a trajectory, and keep it if it's hit before the closest hit so far.
+     * @param x1     - x value of the start of the trajectory.
+     * @param y1     - y value of the start of the trajectory.
+     * @param x2     - x value of the end of the trajectory.
+     * @param y2     - y value of the end of the trajectory.
+     * @param radius - radius of the moving circle, 0 for a segment.
+     * @param swept  - true for a moving circle, false for a thin segment.
+     * @param query  - brick query scratch of the current thread.
+     * @param hit    - closest hit so far, replaced by the brick's hit if it's closer.
+     * @return - view of the brick if it's hit before the closest hit so far, otherwise null.
+     */
+    private Collidable closestBrick(double x1, double y1, double x2, double y2, double radius, boolean swept,
+                                    BrickTable.Query query, SegmentHit hit) {
+        int id = this.bricks.closestHit(x1, y1, x2, y2, radius, swept, query);
+        if (id < 0 || query.getHit().getT() >= hit.getT()) {
+            return null;
+        }
+        hit.set(query.getHit());
+        return this.bricks.view(id);
+    }
+
+    /**
+     * Get the query scratch of the current thread.
+     * @return - scratch of the environment's own thread, or a scratch owned by the current worker thread.
+     */
+    private Scratch scratch() {
+        return Thread.currentThread() == this.owner ? this.ownerScratch : this.workerScratch.get();
+    }
+
+    /**
+     * Getter for the maximum amount of collisions a ball resolves in a single step.
+     * @return - maximum amount of collisions per step.
+     */
+    public int getMaxCollisionIterations() {
+        return this.maxCollisionIterations;
+    }
+
+    /**
+     * Set the maximum amount of collisions a ball resolves in a single step. A ball that reaches the limit stops
+     * where its last collision happened until the next step.
+     * @param iterations - maximum amount of collisions per step, at least 1.
+     */
+    public void setMaxCollisionIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("At least one collision must be resolved per step");
+        }
+        this.maxCollisionIterations = iterations;
+    }
+
+    /**
+     * Set where the time and amount of candidates of every collision query are recorded.
+     * @param newMetrics - metrics of the game, null to stop measuring the queries.
+     */
+    public void setMetrics(GameMetrics newMetrics) {
+        this.metrics = newMetrics;
+    }
+
+    /**
+     * Lists reused by the queries of a single thread.
+     */
+    private static final class Scratch {
+        private final List<Collidable> candidates = new ArrayList<>();
+        private final SegmentHit probe = new SegmentHit();
+        private final BrickTable.Query bricks = new BrickTable.Query();
+    }
+
+    /**
+     * Place of the brick table among the collidables. It covers the whole GUI so every query reaches it, and the
+     * queries test the table's bricks instead of the layer itself, which is never hit.
+     */
+    private static final class BrickLayer implements Collidable {
+        private static final Rectangle BOUNDS = new Rectangle(new Point(0, 0), Constants.GUI_WIDTH,
+                Constants.GUI_HEIGHT);
+
+        @Override
+        public Rectangle getCollisionRectangle() {
+            return BOUNDS;
+        }
+
+        @Override
+        public Block getCollisionBlock() {
+            return null;
+        }
+
+        @Override
+        public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
+            return currentVelocity;
+        }
     }
 }
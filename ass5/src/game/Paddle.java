@@ -1,44 +1,83 @@
 package game;
 
 import biuoop.DrawSurface;
-import biuoop.GUI;
-import biuoop.KeyboardSensor;
 import geometry.Ball;
-import geometry.Line;
 import geometry.Point;
 import geometry.Rectangle;
 import graphics.Sprite;
+import input.InputSource;
 import collision.Collidable;
 import physics.Velocity;
 import util.Constants;
 
 import java.awt.Color;
-import java.util.List;
 
 /**
  * Class to represent the user controlled paddle. Balls will interact with it.
  * @author Yuval Anteby
  */
 public class Paddle implements Sprite, Collidable {
+    //Distance from the paddle's sides in which a point is considered on them.
+    private static final double THRESHOLD = 0.0001;
 
-    private KeyboardSensor keyboard;
+    private InputSource input;
     private Block block;
     private final Rectangle shape;
-    private GUI gui;
+    private final double guiWidth;
     private GameEnvironment environment;
+    private boolean exitRequested;
+    private PaddleZones zones;
 
     /**
      * Constructor for the paddle.
      * @param block         - block to be used as the paddle's shape.
-     * @param gui           - gui for the paddle to be drawn on.
+     * @param input         - source of the commands moving the paddle (E.G: the keyboard).
+     * @param guiWidth      - width of the area the paddle moves in.
      * @param environment   - environment containing the calculation of objects.
      */
-    public Paddle(Block block, GUI gui, GameEnvironment environment) {
+    public Paddle(Block block, InputSource input, double guiWidth, GameEnvironment environment) {
         this.block = block;
         this.shape = block.getCollisionRectangle();
-        this.gui = gui;
-        this.keyboard = gui.getKeyboardSensor();
+        this.input = input;
+        this.guiWidth = guiWidth;
         this.environment = environment;
+        this.exitRequested = false;
+        this.zones = PaddleZones.of(Constants.PADDLE_ZONES);
+    }
+
+    /**
+     * Getter for the zones the paddle's top is split into.
+     * @return - zones of the paddle.
+     */
+    public PaddleZones getZones() {
+        return this.zones;
+    }
+
+    /**
+     * Set the zones the paddle's top is split into.
+     * @param newZones - zones of the paddle (E.G: {@code PaddleZones.of(7)}).
+     */
+    public void setZones(PaddleZones newZones) {
+        if (newZones == null) {
+            throw new IllegalArgumentException("Paddle zones can't be null");
+        }
+        this.zones = newZones;
+    }
+
+    /**
+     * Getter for the distance the paddle moves in a single tick.
+     * @return - movement distance per tick.
+     */
+    public int getSpeed() {
+        return Constants.MOVEMENT_SENSITIVITY;
+    }
+
+    /**
+     * Check if the exit command was given to the paddle.
+     * @return - true if the player asked to exit the game, otherwise false.
+     */
+    public boolean isExitRequested() {
+        return this.exitRequested;
     }
 
     /**
@@ -47,16 +86,16 @@ public class Paddle implements Sprite, Collidable {
      */
     public void moveLeft() {
         Point topLeft;
-        double guiWidth = this.gui.getDrawSurface().getWidth();
         //Make sure the paddle won't exist the gui.
         if (getCollisionRectangle().getUpperLeft().getX() > 0) {
             topLeft = new Point(getCollisionRectangle().getUpperLeft().getX() - Constants.MOVEMENT_SENSITIVITY,
                     getCollisionRectangle().getUpperLeft().getY());
         } else {
-            topLeft = new Point(guiWidth - Constants.BOUNDS_WIDTH - this.shape.getWidth(),
+            topLeft = new Point(this.guiWidth - Constants.BOUNDS_WIDTH - this.shape.getWidth(),
                     this.getCollisionRectangle().getUpperLeft().getY());
         }
         this.shape.setUpperLeft(topLeft);
+        this.environment.updateCollidable(this);
     }
 
     /**
@@ -65,15 +104,24 @@ public class Paddle implements Sprite, Collidable {
      */
     public void moveRight() {
         Point topLeft;
-        double guiWidth = this.gui.getDrawSurface().getWidth();
         //Make sure the paddle won't exist the gui.
-        if (this.getCollisionRectangle().getUpperLeft().getX() + this.shape.getWidth() < guiWidth) {
+        if (this.getCollisionRectangle().getUpperLeft().getX() + this.shape.getWidth() < this.guiWidth) {
             topLeft = new Point(this.getCollisionRectangle().getUpperLeft().getX() + Constants.MOVEMENT_SENSITIVITY,
                     this.getCollisionRectangle().getUpperLeft().getY());
         } else {
             topLeft = new Point(0, this.getCollisionRectangle().getUpperLeft().getY());
         }
         this.shape.setUpperLeft(topLeft);
+        this.environment.updateCollidable(this);
+    }
+
+    /**
+     * Move the paddle to a position without any input (E.G: when a game is restored from a snapshot).
+     * @param x - new x value of the paddle's left side.
+     */
+    void moveTo(double x) {
+        this.shape.setUpperLeft(new Point(x, this.shape.getMinY()));
+        this.environment.updateCollidable(this);
     }
 
     @Override
@@ -89,18 +137,17 @@ public class Paddle implements Sprite, Collidable {
 
     @Override
     public void timePassed() {
+        int commands = this.input.poll();
         //Paddle movement
-        if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY) || this.keyboard.isPressed("a")
-                || this.keyboard.isPressed("A")) {
+        if ((commands & InputSource.LEFT) != 0) {
             moveLeft();
         }
-        if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY) || this.keyboard.isPressed("d")
-                || this.keyboard.isPressed("D")) {
+        if ((commands & InputSource.RIGHT) != 0) {
             moveRight();
         }
         //Exist game on enter press.
-        if (this.keyboard.isPressed(KeyboardSensor.ENTER_KEY)) {
-            this.gui.close();
+        if ((commands & InputSource.EXIT) != 0) {
+            this.exitRequested = true;
         }
     }
 
@@ -111,7 +158,7 @@ public class Paddle implements Sprite, Collidable {
 
     @Override
     public Block getCollisionBlock() {
-        return new Block(shape, Color.ORANGE);
+        return this.block;
     }
 
     @Override
@@ -119,34 +166,28 @@ public class Paddle implements Sprite, Collidable {
         if (collisionPoint == null) {
             return currentVelocity;
         }
-        //divide the top line to 5 parts
-        List<Line> divide = this.shape.getTopLine().divideTo5();
-        // check if the point is on the top line
-        if (this.shape.getTopLine().isContaining(collisionPoint) && currentVelocity.getDy() > 0) {
-            for (int j = 1; j < 6; j++) {
-                //Check which zone was hit.
-                if (divide.get(j - 1).isContaining(collisionPoint)) {
-                    //Change the velocity according to the zone's hit.
-                    switch (j) {
-                        case 1:
-                            return Velocity.fromAngleAndSpeed(300, currentVelocity.getSpeed());
-                        case 2:
-                            return Velocity.fromAngleAndSpeed(330, currentVelocity.getSpeed());
-                        case 3:
-                            return new Velocity(currentVelocity.getDx(), -currentVelocity.getDy());
-                        case 4:
-                            return Velocity.fromAngleAndSpeed(30, currentVelocity.getSpeed());
-                        case 5:
-                            return Velocity.fromAngleAndSpeed(60, currentVelocity.getSpeed());
-                        default:
-                            return currentVelocity;
-                    }
-                }
+        return hit(hitter, collisionPoint.getX(), collisionPoint.getY(), currentVelocity);
+    }
+
+    @Override
+    public Velocity hit(Ball hitter, double x, double y, Velocity currentVelocity) {
+        double minX = this.shape.getMinX(), maxX = this.shape.getMaxX();
+        double minY = this.shape.getMinY(), maxY = this.shape.getMaxY();
+        //Check if the point is on the top line, the direction depends on the zone that was hit.
+        if (Math.abs(y - minY) <= THRESHOLD && x >= minX - THRESHOLD && x <= maxX + THRESHOLD
+                && currentVelocity.getDy() > 0) {
+            int zone = this.zones.zoneAt(x - minX, this.shape.getWidth());
+            if (this.zones.reflects(zone)) {
+                currentVelocity.setDy(-currentVelocity.getDy());
+            } else {
+                double speed = currentVelocity.getSpeed();
+                currentVelocity.setDx(this.zones.getDx(zone) * speed);
+                currentVelocity.setDy(this.zones.getDy(zone) * speed);
             }
-        } else if (this.shape.getRightLine().isContaining(collisionPoint)
-                || this.shape.getLeftLine().isContaining(collisionPoint)) {
+        } else if ((Math.abs(x - maxX) <= THRESHOLD || Math.abs(x - minX) <= THRESHOLD)
+                && y >= minY - THRESHOLD && y <= maxY + THRESHOLD) {
             //On side lines invert the dx of the velocity.
-            return new Velocity(-currentVelocity.getDx(), currentVelocity.getDy());
+            currentVelocity.setDx(-currentVelocity.getDx());
         }
         return currentVelocity;
     }
@@ -0,0 +1,110 @@
+package game;
+
+import util.Constants;
+
+/**
+ * Class to hold the bounce directions of a paddle whose top is split into equal zones.
+ * The zones are spread evenly from {@link Constants#PADDLE_MAX_ANGLE} degrees to the left of straight up to the same
+ * angle to the right, and with an odd amount of zones the middle zone reflects the ball like a regular block.
+ * The directions are calculated once for every amount of zones, so a hit only finds its zone with a division and
+ * scales the direction by the ball's speed.
+ * @author Yuval Anteby
+ */
+public final class PaddleZones {
+    /**
+     * Least and most zones a paddle can have.
+     */
+    public static final int MIN_ZONES = 3, MAX_ZONES = 15;
+    //Points on a zone border belong to the zone on the left, like on the borders of the blocks.
+    private static final double THRESHOLD = 0.0001;
+    private static final PaddleZones[] TABLES = new PaddleZones[MAX_ZONES + 1];
+
+    static {
+        for (int zones = MIN_ZONES; zones <= MAX_ZONES; zones++) {
+            TABLES[zones] = new PaddleZones(zones);
+        }
+    }
+
+    private final int zones;
+    private final double[] dx;
+    private final double[] dy;
+    private final int reflectZone;
+
+    /**
+     * Constructor for the table of a zones amount.
+     * @param zones - amount of zones.
+     */
+    private PaddleZones(int zones) {
+        this.zones = zones;
+        this.dx = new double[zones];
+        this.dy = new double[zones];
+        this.reflectZone = zones % 2 == 1 ? zones / 2 : -1;
+        for (int i = 0; i < zones; i++) {
+            double angle = -Constants.PADDLE_MAX_ANGLE + 2.0 * Constants.PADDLE_MAX_ANGLE * i / (zones - 1);
+            //Same angles as Velocity.fromAngleAndSpeed gets, so the directions match it exactly.
+            if (angle < 0) {
+                angle += 360;
+            }
+            this.dx[i] = Math.cos(Math.toRadians(angle - 90));
+            this.dy[i] = Math.sin(Math.toRadians(angle - 90));
+        }
+    }
+
+    /**
+     * Get the table of a zones amount.
+     * @param zones - amount of zones, between {@link #MIN_ZONES} and {@link #MAX_ZONES}.
+     * @return - shared table of the zones.
+     */
+    public static PaddleZones of(int zones) {
+        if (zones < MIN_ZONES || zones > MAX_ZONES) {
+            throw new IllegalArgumentException("Paddle zones must be between " + MIN_ZONES + " and " + MAX_ZONES);
+        }
+        return TABLES[zones];
+    }
+
+    /**
+     * Getter for the amount of zones.
+     * @return - amount of zones.
+     */
+    public int getZones() {
+        return this.zones;
+    }
+
+    /**
+     * Find the zone hit at a distance from the paddle's left side.
+     * @param offset - x distance of the hit from the left side of the paddle.
+     * @param width  - width of the paddle.
+     * @return - index of the zone, from 0 on the left.
+     */
+    public int zoneAt(double offset, double width) {
+        int zone = (int) Math.ceil((offset - THRESHOLD) / (width / this.zones)) - 1;
+        return Math.max(0, Math.min(this.zones - 1, zone));
+    }
+
+    /**
+     * Check if a zone reflects the ball instead of sending it in a fixed direction.
+     * @param zone - index of the zone.
+     * @return - true for the middle zone of an odd amount of zones, otherwise false.
+     */
+    public boolean reflects(int zone) {
+        return zone == this.reflectZone;
+    }
+
+    /**
+     * Getter for the x part of a zone's direction.
+     * @param zone - index of the zone.
+     * @return - x part of the unit vector of the direction.
+     */
+    public double getDx(int zone) {
+        return this.dx[zone];
+    }
+
+    /**
+     * Getter for the y part of a zone's direction.
+     * @param zone - index of the zone.
+     * @return - y part of the unit vector of the direction.
+     */
+    public double getDy(int zone) {
+        return this.dy[zone];
+    }
+}
@@ -0,0 +1,109 @@
+package game;
+
+import collision.EventBus;
+import graphics.SpriteCollection;
+
+import java.awt.Color;
+
+/**
+ * Class to hold a level that is ready to be played: its bounds and blocks, the collision grid they're stored in and
+ * the static layer they're drawn into. The bricks are kept in a single {@link BrickTable}, drawn as one static sprite
+ * and hit as one place among the collidables. A level can be prepared on a background thread and handed to the game's
+ * thread once the previous level is cleared.
+ * @author Yuval Anteby
+ */
+class PreparedLevel {
+    private final GameEnvironment environment = new GameEnvironment();
+    private final SpriteCollection sprites = new SpriteCollection();
+    private final BrickTable brickTable;
+    private int breakable;
+    private double bottom;
+
+    /**
+     * Constructor for an empty level.
+     * @param eventBus - event bus of the game the level is prepared for.
+     */
+    PreparedLevel(EventBus eventBus) {
+        this.brickTable = new BrickTable(eventBus);
+    }
+
+    /**
+     * Add a block that can't be broken (E.G: the bounds of the GUI).
+     * @param block - block to be added.
+     */
+    void addBlock(Block block) {
+        this.environment.addCollidable(block);
+        this.sprites.addStaticSprite(block);
+    }
+
+    /**
+     * Add a brick to the level's brick table, every brick that isn't solid counts towards clearing the level.
+     * @param x         - x value of the top left corner of the brick.
+     * @param y         - y value of the top left corner of the brick.
+     * @param width     - width of the brick.
+     * @param height    - height of the brick.
+     * @param color     - color of the brick.
+     * @param hitPoints - amount of hits it takes to break the brick.
+     * @param flags     - flags of the brick, as in {@link level.LevelSink}.
+     */
+    void addBrick(double x, double y, double width, double height, Color color, int hitPoints, int flags) {
+        //The table is drawn and hit after the blocks added before the first brick, like separate bricks would.
+        if (this.brickTable.size() == 0) {
+            this.sprites.addStaticSprite(this.brickTable);
+            this.environment.addBricks(this.brickTable);
+        }
+        int id = this.brickTable.add(x, y, width, height, color, hitPoints, flags);
+        if (!this.brickTable.isSolid(id)) {
+            this.breakable++;
+        }
+        this.bottom = Math.max(this.bottom, this.brickTable.getMaxY(id));
+    }
+
+    /**
+     * Add a block that is only drawn (E.G: the background).
+     * @param block - block to be added.
+     */
+    void addBackground(Block block) {
+        this.sprites.addStaticSprite(block);
+    }
+
+    /**
+     * Getter for the environment of the level.
+     * @return - environment holding the level's blocks.
+     */
+    GameEnvironment getEnvironment() {
+        return this.environment;
+    }
+
+    /**
+     * Getter for the sprites of the level.
+     * @return - sprites of the level.
+     */
+    SpriteCollection getSprites() {
+        return this.sprites;
+    }
+
+    /**
+     * Getter for the table holding the state of the level's bricks.
+     * @return - brick table of the level.
+     */
+    BrickTable getBrickTable() {
+        return this.brickTable;
+    }
+
+    /**
+     * Get the amount of bricks that have to be broken to clear the level.
+     * @return - amount of bricks that aren't solid.
+     */
+    int getBreakableCount() {
+        return this.breakable;
+    }
+
+    /**
+     * Getter for the bottom of the lowest brick, the balls start under it.
+     * @return - y value of the lowest brick's bottom.
+     */
+    double getBottom() {
+        return this.bottom;
+    }
+}
@@ -1,31 +1,41 @@
 package geometry;
 
 import biuoop.DrawSurface;
+import collision.Collidable;
+import collision.EventBus;
 import collision.HitListener;
+import collision.HitListenerList;
 import collision.HitNotifier;
 import game.Block;
-import util.Constants;
 import game.Game;
 import game.GameEnvironment;
+import graphics.Palette;
 import graphics.Sprite;
-import collision.CollisionInfo;
 import physics.Velocity;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
-//TODO fix ball movement
 /**
  * Class to represent a ball in the GUI.
  * @author Yuval Anteby
  */
 public class Ball implements Sprite, HitNotifier {
-    private Point center;
+    //Moved in place on every step, the ball's position isn't shared with other objects.
+    private MutablePoint center;
     private int r;
-    private Color color;
+    //Id of the ball's color in the palette.
+    private int color;
     private Velocity velocity;
     private GameEnvironment environment;
-    private List<HitListener> hitListeners = new ArrayList<>();
+    private HitListenerList hitListeners = new HitListenerList();
+    //Set when the ball is in a game, exits are then queued until the end of the tick.
+    private EventBus eventBus;
+    //When the ball is stored in a ball system its state lives in the system's arrays.
+    private BallSystem system;
+    private int index;
+    private boolean removed;
+    //Reused in every step, so resolving collisions doesn't create new objects.
+    private SegmentHit hit;
+    private Velocity response;
 
     /**
      * Constructor for moving balls.
@@ -35,9 +45,9 @@ public class Ball implements Sprite, HitNotifier {
      * @param velocity - starting velocity of the ball.
      */
     public Ball(Point center, int r, Color color, Velocity velocity) {
-        this.center = center;
+        this.center = new MutablePoint(center.getX(), center.getY());
         this.r = r;
-        this.color = color;
+        this.color = Palette.idOf(color);
         this.velocity = velocity;
     }
 
@@ -48,9 +58,9 @@ public class Ball implements Sprite, HitNotifier {
      * @param color - color of the ball to be filled by.
      */
     public Ball(Point center, int r, Color color) {
-        this.center = center;
+        this.center = new MutablePoint(center.getX(), center.getY());
         this.r = r;
-        this.color = color;
+        this.color = Palette.idOf(color);
         this.velocity = new Velocity(0, 0);
     }
 
@@ -63,9 +73,9 @@ public class Ball implements Sprite, HitNotifier {
      * @param velocity - the velocity of the ball for animations.
      */
     public Ball(int x, int y, int r, Color color, Velocity velocity) {
-        this.center = new Point(x, y);
+        this.center = new MutablePoint(x, y);
         this.r = r;
-        this.color = color;
+        this.color = Palette.idOf(color);
         this.velocity = velocity;
     }
 
@@ -74,7 +84,7 @@ public class Ball implements Sprite, HitNotifier {
      * @return - x integer value of the center point.
      */
     public int getX() {
-        return (int) this.center.getX();
+        return (int) centerX();
     }
 
     /**
@@ -82,7 +92,7 @@ public class Ball implements Sprite, HitNotifier {
      * @return - y integer value of the center point.
      */
     public int getY() {
-        return (int) this.center.getY();
+        return (int) centerY();
     }
 
     /**
@@ -90,7 +100,7 @@ public class Ball implements Sprite, HitNotifier {
      * @return - integer value of this ball's radius.
      */
     public int getSize() {
-        return this.r;
+        return this.system != null ? this.system.radius(this.index) : this.r;
     }
 
     /**
@@ -98,7 +108,15 @@ public class Ball implements Sprite, HitNotifier {
      * @return - color of the ball.
      */
     public Color getColor() {
-        return this.color;
+        return Palette.colorOf(getColorId());
+    }
+
+    /**
+     * Get the id of the ball's color in the palette, balls and blocks of the same color have the same id.
+     * @return - palette id of the ball's color.
+     */
+    public int getColorId() {
+        return this.system != null ? this.system.colorId(this.index) : this.color;
     }
 
     /**
@@ -106,17 +124,50 @@ public class Ball implements Sprite, HitNotifier {
      * @param color - new color for the ball.
      */
     public void setColor(Color color) {
-        this.color = color;
+        setColorId(Palette.idOf(color));
+    }
+
+    /**
+     * Setter for the ball's color by its id in the palette.
+     * @param colorId - palette id of the new color.
+     */
+    public void setColorId(int colorId) {
+        if (this.system != null) {
+            this.system.setColorId(this.index, colorId);
+        } else {
+            this.color = colorId;
+        }
     }
 
     /**
      * Get the ball's velocity variable.
+     * The velocity of a ball stored in a ball system lives in the system's arrays, so a new velocity holding its
+     * current value is returned. Use {@link #getDx()} and {@link #getDy()} to read it without creating an object.
      * @return - the ball's velocity.
      */
     public Velocity getVelocity() {
+        if (this.system != null) {
+            return new Velocity(this.system.dx(this.index), this.system.dy(this.index));
+        }
         return this.velocity;
     }
 
+    /**
+     * Get the speed of the ball on the x-axis.
+     * @return - x-axis velocity.
+     */
+    public double getDx() {
+        return this.system != null ? this.system.dx(this.index) : this.velocity.getDx();
+    }
+
+    /**
+     * Get the speed of the ball on the y-axis.
+     * @return - y-axis velocity.
+     */
+    public double getDy() {
+        return this.system != null ? this.system.dy(this.index) : this.velocity.getDy();
+    }
+
     /**
      * Get the game environment used by the ball.
      * @return - game environment of the ball.
@@ -130,16 +181,26 @@ public class Ball implements Sprite, HitNotifier {
      * @param v - the new velocity.
      */
     public void setVelocity(Velocity v) {
-        this.velocity = v;
+        if (this.system != null) {
+            this.system.setVelocity(this.index, v.getDx(), v.getDy());
+        } else {
+            this.velocity = v;
+        }
     }
 
     /**
      * Change the ball's velocity variable by using a new doubles.
+     * A new velocity is only created when the velocity changes, so a step without collisions doesn't create one.
      * @param dx - speed of the x-axis.
      * @param dy - speed of the y-axis.
      */
     public void setVelocity(double dx, double dy) {
-        this.velocity = new Velocity(dx, dy);
+        if (this.system != null) {
+            this.system.setVelocity(this.index, dx, dy);
+        } else if (this.velocity == null || Double.compare(this.velocity.getDx(), dx) != 0
+                || Double.compare(this.velocity.getDy(), dy) != 0) {
+            this.velocity = new Velocity(dx, dy);
+        }
     }
 
     /**
@@ -151,75 +212,102 @@ public class Ball implements Sprite, HitNotifier {
     }
 
     /**
-     * Change the center point of the ball according to the current velocity.
+     * Get the exact x value of the center of this ball.
+     * @return - x value of the center point.
      */
-    public void moveOneStep() {
-        //Make sure we have a game environment set for the ball.
-        if (environment == null) {
-            return;
-        }
-        //Calculate the trajectory of the ball and get info for potential collision.
-        Line path = new Line(center, this.velocity.applyToPoint(center));
-        CollisionInfo hitInfo = this.environment.getClosestCollision(path);
-        if (hitInfo == null) {
-            //No collision was detected, keep moving.
-            this.center = this.getVelocity().applyToPoint(this.center);
+    public double centerX() {
+        return this.system != null ? this.system.x(this.index) : this.center.getX();
+    }
+
+    /**
+     * Get the exact y value of the center of this ball.
+     * @return - y value of the center point.
+     */
+    public double centerY() {
+        return this.system != null ? this.system.y(this.index) : this.center.getY();
+    }
+
+    /**
+     * Move the center of the ball.
+     * @param x - new x value of the center.
+     * @param y - new y value of the center.
+     */
+    private void setCenter(double x, double y) {
+        if (this.system != null) {
+            this.system.setCenter(this.index, x, y);
         } else {
-            //Check if we hit a death block.
-            if (hitInfo.collisionObject().getCollisionBlock().isDeathBlock()) {
-                notifyExit(hitInfo.collisionObject().getCollisionBlock(), this);
-            }
-            // Calculate the new velocity after hitting an object.
-            Velocity newVelocity = hitInfo.collisionObject().hit(this, hitInfo.collisionPoint(), this.velocity);
-            // Adjust the position to be slightly away from the collision point.
-            this.center = moveToCollision(hitInfo.collisionPoint(), this.velocity);
-            this.velocity = newVelocity;
+            this.center.set(x, y);
         }
-        checkBoundaryCollision();
     }
 
     /**
-     * Move the ball to collision point and adjust to prevent sticking to blocks.
-     * @param collisionPoint - point of collision.
-     * @param velocity - current velocity of the ball.
-     * @return - the new center point of the ball.
+     * Change the center point of the ball according to the current velocity.
+     * The ball is swept as a circle along its path, every collision on the way is resolved in order (up to the
+     * environment's limit) so the ball can't pass through blocks or get stuck in corners.
      */
-    public Point moveToCollision(Point collisionPoint, Velocity velocity) {
-        double adjustedX = collisionPoint.getX();
-        double adjustedY = collisionPoint.getY();
-        if (velocity.getDx() < 0) {
-            adjustedX += this.r;
-        } else if (velocity.getDx() > 0) {
-            adjustedX -= this.r;
-        }
-        if (velocity.getDy() < 0) {
-            adjustedY += this.r;
-        } else if (velocity.getDy() > 0) {
-            adjustedY -= this.r;
-        }
-        return new Point(adjustedX, adjustedY);
+    public void moveOneStep() {
+        moveOneStep(null, null);
     }
 
     /**
-     * Check collision on GUI boundaries and adjust accordingly the center and velocity.
-     *
+     * Change the center point of the ball according to the current velocity, starting from the first collision of
+     * the step when it was already found (E.G: by a {@link BallSystem}), so it isn't looked for twice.
+     * @param firstObject - collidable the whole step hits first, null to look for it.
+     * @param firstHit    - hit of the whole step with the first collidable, ignored if there is none.
      */
-    private void checkBoundaryCollision() {
-        //Check top boundary.
-        if (this.center.getY() - this.r <= Constants.BOUNDS_HEIGHT) {
-            this.velocity.setDy(-this.velocity.getDy());
-            this.center.setY(this.r + Constants.BOUNDS_HEIGHT);
+    void moveOneStep(Collidable firstObject, SegmentHit firstHit) {
+        //Make sure we have a game environment set for the ball.
+        if (environment == null) {
+            return;
         }
-        //Check right boundary.
-        if (this.center.getX() + this.r + Constants.BOUNDS_WIDTH >= Constants.GUI_WIDTH) {
-            this.velocity.setDx(-this.velocity.getDx());
-            this.center.setX(Constants.GUI_WIDTH - this.r - Constants.BOUNDS_WIDTH);
+        if (this.hit == null) {
+            this.hit = new SegmentHit();
+            this.response = new Velocity();
         }
-        //Check left boundary.
-        if (this.center.getX() - this.r <= Constants.BOUNDS_WIDTH) {
-            this.velocity.setDx(-this.velocity.getDx());
-            this.center.setX(this.r + Constants.BOUNDS_WIDTH);
+        double x = centerX(), y = centerY();
+        double dx = getDx(), dy = getDy();
+        int radius = getSize();
+        //Part of the step that is left to move after the collisions so far.
+        double remaining = 1;
+        int iterations = this.environment.getMaxCollisionIterations();
+        for (int i = 0; i < iterations && remaining > 0; i++) {
+            double endX = x + dx * remaining, endY = y + dy * remaining;
+            Collidable hitObject;
+            if (i == 0 && firstObject != null) {
+                hitObject = firstObject;
+                this.hit.set(firstHit);
+            } else {
+                hitObject = this.environment.getClosestCollision(x, y, endX, endY, radius, this.hit);
+            }
+            if (hitObject == null) {
+                //No collision was detected, keep moving.
+                x = endX;
+                y = endY;
+                remaining = 0;
+                break;
+            }
+            //Move to the moment of the collision.
+            x = this.hit.getCenterX();
+            y = this.hit.getCenterY();
+            remaining *= 1 - this.hit.getT();
+            setCenter(x, y);
+            //Check if we hit a death block.
+            if (hitObject.getCollisionBlock().isDeathBlock()) {
+                if (this.eventBus != null) {
+                    this.eventBus.publish(EventBus.BALL_EXIT, hitObject.getCollisionBlock(), this);
+                } else {
+                    notifyExit(hitObject.getCollisionBlock());
+                }
+            }
+            // Calculate the new velocity after hitting an object.
+            this.response.setDx(dx);
+            this.response.setDy(dy);
+            Velocity newVelocity = hitObject.hit(this, this.hit.getX(), this.hit.getY(), this.response);
+            dx = newVelocity.getDx();
+            dy = newVelocity.getDy();
         }
+        setCenter(x, y);
+        setVelocity(dx, dy);
     }
 
     /**
@@ -227,22 +315,34 @@ public class Ball implements Sprite, HitNotifier {
      * @param g - instance of a game.
      */
     public void addToGame(Game g) {
+        this.eventBus = g.getEventBus();
         g.addSprite(this);
     }
 
+    /**
+     * Set the event bus the ball publishes its exit to, used when the ball is added to a game through a
+     * {@link BallSystem}.
+     * @param bus - event bus of the game, null to notify the listeners right away.
+     */
+    public void setEventBus(EventBus bus) {
+        this.eventBus = bus;
+    }
+
     /**
      * Function to update all hit listeners upon a ball's GUI exit.
-     *
+     * Called by the game's event bus at the end of the tick, or right away when the ball isn't in a game.
      * @param beingHit - the death block that the ball hit.
-     * @param exitBall - the ball that exist the GUI.
      */
-    private void notifyExit(Block beingHit, Ball exitBall) {
-        // Make a copy of the hitListeners before iterating over them.
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
-        // Notify all listeners about a hit event:
-        for (HitListener hl : listeners) {
-            hl.hitEvent(beingHit, exitBall);
-        }
+    public void notifyExit(Block beingHit) {
+        this.hitListeners.notifyAll(beingHit, this);
+    }
+
+    /**
+     * Check if the ball was removed from the game.
+     * @return - true if the ball was removed, otherwise false.
+     */
+    public boolean isRemoved() {
+        return this.removed;
     }
 
     /**
@@ -251,16 +351,62 @@ public class Ball implements Sprite, HitNotifier {
      */
     public void removeFromGame(Game game) {
         if (game != null) {
-            game.removeSprite(this);
-            for (int i = 0; i < this.hitListeners.size(); i++) {
-                removeHitListener(this.hitListeners.get(i));
+            this.removed = true;
+            if (this.system != null) {
+                this.system.remove(this);
+            } else {
+                game.removeSprite(this);
             }
+            this.hitListeners.clear();
         }
     }
 
+    /**
+     * Attach the ball to a ball system, the system takes over the ball's state.
+     * @param ballSystem - system that stores the ball.
+     * @param position   - index of the ball in the system's arrays.
+     */
+    void attach(BallSystem ballSystem, int position) {
+        this.system = ballSystem;
+        this.index = position;
+    }
+
+    /**
+     * Update the index of the ball after the system moved it inside its arrays.
+     * @param position - new index of the ball.
+     */
+    void moveTo(int position) {
+        this.index = position;
+    }
+
+    /**
+     * Get the index of the ball in a ball system.
+     * @param ballSystem - system to look in.
+     * @return - index of the ball, -1 if the ball isn't stored in that system.
+     */
+    int indexIn(BallSystem ballSystem) {
+        return this.system == ballSystem && ballSystem != null ? this.index : -1;
+    }
+
+    /**
+     * Detach the ball from its ball system, copying its state back into the ball.
+     */
+    void detach() {
+        if (this.system == null) {
+            return;
+        }
+        BallSystem old = this.system;
+        int position = this.index;
+        this.system = null;
+        this.center.set(old.x(position), old.y(position));
+        this.velocity = new Velocity(old.dx(position), old.dy(position));
+        this.r = old.radius(position);
+        this.color = old.colorId(position);
+    }
+
     @Override
     public void drawOn(DrawSurface surface) {
-        surface.setColor(this.color);
+        surface.setColor(getColor());
         surface.fillCircle(this.getX(), this.getY(), this.getSize());
         surface.setColor(Color.BLACK);
         surface.drawCircle(this.getX(), this.getY(), this.getSize());
@@ -273,21 +419,18 @@ public class Ball implements Sprite, HitNotifier {
 
     @Override
     public void addHitListener(HitListener hl) {
-        if (hl != null) {
-            this.hitListeners.add(hl);
-        }
+        this.hitListeners.add(hl);
     }
 
     @Override
     public void removeHitListener(HitListener hl) {
-        if (hl != null) {
-            this.hitListeners.remove(hl);
-        }
+        this.hitListeners.remove(hl);
     }
 
     @Override
     public String toString() {
-        return "center: " + center + ", r: " + r + ", color: " + color + ", velocity: " + velocity;
+        return "center: " + new Point(centerX(), centerY()) + ", r: " + getSize() + ", color: " + getColor()
+                + ", velocity: " + getVelocity();
     }
 }
 
@@ -0,0 +1,407 @@
+package geometry;
+
+import biuoop.DrawSurface;
+import collision.Collidable;
+import collision.EventBus;
+import game.Game;
+import game.GameEnvironment;
+import graphics.Palette;
+import graphics.Sprite;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class to store many balls in parallel arrays and advance all of them in one loop.
+ * The balls added to the system become handles into the arrays, so hit listeners and removers keep working with
+ * {@link Ball} references while the system steps positions and velocities without going through every ball object.
+ * With a {@link ForkJoinPool} the balls look for their first collision in parallel, and the collisions are then
+ * resolved one ball at a time in the same order as without a pool, so both modes give the same results.
+ * @author Yuval Anteby
+ */
+public class BallSystem implements Sprite {
+    private static final int DEFAULT_CAPACITY = 16;
+    //Amount of balls queried by a single task, smaller systems are stepped without the pool.
+    private static final int PARALLEL_CHUNK = 256;
+
+    private final GameEnvironment environment;
+    private final SegmentHit hit = new SegmentHit();
+    private EventBus eventBus;
+    private ForkJoinPool pool;
+    //First collision of every ball's step, found on the pool and resolved afterwards, null if the step hits nothing.
+    private Collidable[] firstObjects = new Collidable[0];
+    private SegmentHit[] firstHits = new SegmentHit[0];
+    private double[] x;
+    private double[] y;
+    private double[] dx;
+    private double[] dy;
+    private int[] radius;
+    private int[] colors;
+    private Ball[] handles;
+    private boolean[] removed;
+    private int size;
+    private boolean stepping;
+    private boolean hasRemoved;
+
+    /**
+     * Constructor for the system.
+     * @param environment - game environment the balls collide with.
+     */
+    public BallSystem(GameEnvironment environment) {
+        this.environment = environment;
+        this.x = new double[DEFAULT_CAPACITY];
+        this.y = new double[DEFAULT_CAPACITY];
+        this.dx = new double[DEFAULT_CAPACITY];
+        this.dy = new double[DEFAULT_CAPACITY];
+        this.radius = new int[DEFAULT_CAPACITY];
+        this.colors = new int[DEFAULT_CAPACITY];
+        this.handles = new Ball[DEFAULT_CAPACITY];
+        this.removed = new boolean[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Add a ball to the system. The ball's state is copied into the system and the ball becomes a handle to it.
+     * @param ball - ball to be added.
+     */
+    public void add(Ball ball) {
+        if (ball == null) {
+            return;
+        }
+        if (this.size == this.x.length) {
+            grow();
+        }
+        int i = this.size++;
+        this.x[i] = ball.centerX();
+        this.y[i] = ball.centerY();
+        this.dx[i] = ball.getDx();
+        this.dy[i] = ball.getDy();
+        this.radius[i] = ball.getSize();
+        this.colors[i] = ball.getColorId();
+        this.handles[i] = ball;
+        this.removed[i] = false;
+        ball.setGameEnvironment(this.environment);
+        ball.setEventBus(this.eventBus);
+        ball.attach(this, i);
+    }
+
+    /**
+     * Remove a ball from the system. While the system is stepping the removal is applied at the end of the step,
+     * so the balls are never moved inside the arrays mid-iteration.
+     * @param ball - ball to be removed.
+     */
+    public void remove(Ball ball) {
+        int i = ball == null ? -1 : ball.indexIn(this);
+        if (i < 0 || this.removed[i]) {
+            return;
+        }
+        ball.detach();
+        this.removed[i] = true;
+        this.hasRemoved = true;
+        if (!this.stepping) {
+            compact();
+        }
+    }
+
+    /**
+     * Get the amount of balls in the system.
+     * @return - amount of balls.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add the ball system to the game as a single sprite, the balls publish their exits to the game's event bus.
+     * @param g - instance of a game.
+     */
+    public void addToGame(Game g) {
+        this.eventBus = g.getEventBus();
+        for (int i = 0; i < this.size; i++) {
+            this.handles[i].setEventBus(this.eventBus);
+        }
+        g.addSprite(this);
+    }
+
+    /**
+     * Set the pool used to look for the balls' collisions in parallel.
+     * The collisions found on the pool are only used while no collidable was added, removed or moved during the step
+     * (E.G: the hits are published to an event bus), otherwise the balls look for them again.
+     * @param newPool - pool of worker threads, null to step the balls on the calling thread only.
+     */
+    public void setPool(ForkJoinPool newPool) {
+        this.pool = newPool;
+    }
+
+    /**
+     * Advance every ball by one step.
+     * Balls that don't hit anything are moved directly on the arrays, balls that hit something are resolved by their
+     * {@link Ball} starting from the hit that was already found, so the collision, hit listeners and removal logic
+     * stays the same as a single ball.
+     */
+    public void step() {
+        this.stepping = true;
+        if (this.pool != null && this.size > PARALLEL_CHUNK) {
+            stepParallel();
+        } else {
+            stepSerial();
+        }
+        this.stepping = false;
+        if (this.hasRemoved) {
+            compact();
+        }
+    }
+
+    /**
+     * Advance the balls one after the other.
+     */
+    private void stepSerial() {
+        for (int i = 0; i < this.size; i++) {
+            if (!this.removed[i]) {
+                stepBall(i);
+            }
+        }
+    }
+
+    /**
+     * Advance a single ball, looking for its first collision on the calling thread.
+     * @param i - index of the ball.
+     */
+    private void stepBall(int i) {
+        double nextX = this.x[i] + this.dx[i], nextY = this.y[i] + this.dy[i];
+        Collidable first = this.environment.getClosestCollision(this.x[i], this.y[i], nextX, nextY, this.radius[i],
+                this.hit);
+        if (first == null) {
+            this.x[i] = nextX;
+            this.y[i] = nextY;
+        } else {
+            //Resolve from the hit that was just found instead of looking for it again.
+            this.handles[i].moveOneStep(first, this.hit);
+        }
+    }
+
+    /**
+     * Advance the balls in two phases. First every ball looks for the first collision of its step on the pool, which
+     * only reads the environment. Then the balls are resolved in index order from the collisions that were found, so
+     * the events are published in the same order as {@link #stepSerial()}. If resolving a ball changed the
+     * collidables (E.G: a block was removed right away), the balls after it look for their collision again.
+     */
+    private void stepParallel() {
+        if (this.firstObjects.length < this.size) {
+            int oldLength = this.firstHits.length;
+            this.firstObjects = new Collidable[this.x.length];
+            this.firstHits = Arrays.copyOf(this.firstHits, this.x.length);
+            for (int i = oldLength; i < this.firstHits.length; i++) {
+                this.firstHits[i] = new SegmentHit();
+            }
+        }
+        long changes = this.environment.getChangeCount();
+        this.pool.invoke(new QueryTask(0, this.size));
+        for (int i = 0; i < this.size; i++) {
+            Collidable first = this.firstObjects[i];
+            this.firstObjects[i] = null;
+            if (this.removed[i]) {
+                continue;
+            }
+            if (this.environment.getChangeCount() != changes) {
+                stepBall(i);
+            } else if (first != null) {
+                this.handles[i].moveOneStep(first, this.firstHits[i]);
+            } else {
+                this.x[i] += this.dx[i];
+                this.y[i] += this.dy[i];
+            }
+        }
+    }
+
+    @Override
+    public void timePassed() {
+        step();
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.removed[i]) {
+                continue;
+            }
+            int cx = (int) this.x[i], cy = (int) this.y[i];
+            d.setColor(Palette.colorOf(this.colors[i]));
+            d.fillCircle(cx, cy, this.radius[i]);
+            d.setColor(Color.BLACK);
+            d.drawCircle(cx, cy, this.radius[i]);
+        }
+    }
+
+    /**
+     * Getter for the x value of a ball's center.
+     * @param i - index of the ball.
+     * @return - x value of the center.
+     */
+    double x(int i) {
+        return this.x[i];
+    }
+
+    /**
+     * Getter for the y value of a ball's center.
+     * @param i - index of the ball.
+     * @return - y value of the center.
+     */
+    double y(int i) {
+        return this.y[i];
+    }
+
+    /**
+     * Getter for the x-axis velocity of a ball.
+     * @param i - index of the ball.
+     * @return - x-axis velocity.
+     */
+    double dx(int i) {
+        return this.dx[i];
+    }
+
+    /**
+     * Getter for the y-axis velocity of a ball.
+     * @param i - index of the ball.
+     * @return - y-axis velocity.
+     */
+    double dy(int i) {
+        return this.dy[i];
+    }
+
+    /**
+     * Getter for the radius of a ball.
+     * @param i - index of the ball.
+     * @return - radius of the ball.
+     */
+    int radius(int i) {
+        return this.radius[i];
+    }
+
+    /**
+     * Getter for the color of a ball.
+     * @param i - index of the ball.
+     * @return - palette id of the ball's color.
+     */
+    int colorId(int i) {
+        return this.colors[i];
+    }
+
+    /**
+     * Move the center of a ball.
+     * @param i    - index of the ball.
+     * @param newX - new x value of the center.
+     * @param newY - new y value of the center.
+     */
+    void setCenter(int i, double newX, double newY) {
+        this.x[i] = newX;
+        this.y[i] = newY;
+    }
+
+    /**
+     * Change the velocity of a ball.
+     * @param i     - index of the ball.
+     * @param newDx - new x-axis velocity.
+     * @param newDy - new y-axis velocity.
+     */
+    void setVelocity(int i, double newDx, double newDy) {
+        this.dx[i] = newDx;
+        this.dy[i] = newDy;
+    }
+
+    /**
+     * Change the color of a ball.
+     * @param i     - index of the ball.
+     * @param color - palette id of the new color.
+     */
+    void setColorId(int i, int color) {
+        this.colors[i] = color;
+    }
+
+    /**
+     * Drop the removed balls from the arrays, keeping the order of the remaining balls.
+     */
+    private void compact() {
+        int next = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.removed[i]) {
+                continue;
+            }
+            if (next != i) {
+                this.x[next] = this.x[i];
+                this.y[next] = this.y[i];
+                this.dx[next] = this.dx[i];
+                this.dy[next] = this.dy[i];
+                this.radius[next] = this.radius[i];
+                this.colors[next] = this.colors[i];
+                this.handles[next] = this.handles[i];
+                this.removed[next] = false;
+                this.handles[next].moveTo(next);
+            }
+            next++;
+        }
+        for (int i = next; i < this.size; i++) {
+            this.handles[i] = null;
+            this.removed[i] = false;
+        }
+        this.size = next;
+        this.hasRemoved = false;
+    }
+
+    /**
+     * Find the first collision of the next step of every ball in a range of indexes.
+     * @param from - first index of the range.
+     * @param to   - index after the last one of the range.
+     */
+    private void queryRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            this.firstObjects[i] = this.removed[i] ? null : this.environment.getClosestCollision(this.x[i],
+                    this.y[i], this.x[i] + this.dx[i], this.y[i] + this.dy[i], this.radius[i], this.firstHits[i]);
+        }
+    }
+
+    /**
+     * Task to find the first collision of the next step of every ball in a range of indexes.
+     */
+    private final class QueryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructor for the task.
+         * @param from - first index of the range.
+         * @param to   - index after the last one of the range.
+         */
+        private QueryTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > PARALLEL_CHUNK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new QueryTask(this.from, middle), new QueryTask(middle, this.to));
+                return;
+            }
+            queryRange(this.from, this.to);
+        }
+    }
+
+    /**
+     * Double the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.dx = Arrays.copyOf(this.dx, capacity);
+        this.dy = Arrays.copyOf(this.dy, capacity);
+        this.radius = Arrays.copyOf(this.radius, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.handles = Arrays.copyOf(this.handles, capacity);
+        this.removed = Arrays.copyOf(this.removed, capacity);
+    }
+}
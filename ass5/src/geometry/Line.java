@@ -1,8 +1,5 @@
 package geometry;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Class to represent a line in 2D made by two points.
  * @author Yuval Anteby
@@ -20,8 +17,9 @@ public class Line {
      * @param end - Second point. (where the line ends).
      */
     public Line(Point start, Point end) {
-        this.start = new Point(start.getX(), start.getY());
-        this.end = new Point(end.getX(), end.getY());
+        //Points are immutable, so they're shared instead of copied.
+        this.start = start;
+        this.end = end;
     }
 
     /**
@@ -58,7 +56,7 @@ public class Line {
      * @return - start point of the line.
      */
     public Point start() {
-        return new Point(this.start.getX(), this.start.getY());
+        return this.start;
     }
 
     /**
@@ -67,7 +65,7 @@ public class Line {
      * @return - end point of the line.
      */
     public Point end() {
-        return new Point(this.end.getX(), this.end.getY());
+        return this.end;
     }
 
     /**
@@ -322,24 +320,16 @@ public class Line {
 
     /**
      * Finds the closest intersection point to the start of the line with a given rectangle.
-     *
+     * Wrapper for {@link Rectangle#intersect}, the only object created is the returned point.
      * @param rectangle - the rectangle to check for intersections with.
      * @return - closest intersection point, otherwise null if there are no intersections.
      */
     public Point closestIntersectionToStartOfLine(Rectangle rectangle) {
-        List<Point> intersections = rectangle.intersectionPoints(this);
-        if (intersections.isEmpty()) {
+        SegmentHit hit = new SegmentHit();
+        if (!rectangle.intersect(this.start.getX(), this.start.getY(), this.end.getX(), this.end.getY(), hit)) {
             return null;
         }
-        double closestDistance = intersections.get(0).distance(this.start);
-        Point closest = intersections.get(0);
-        for (Point point : intersections) {
-            if (point.distance(this.start) < closestDistance) {
-                closestDistance = point.distance(this.start);
-                closest = point;
-            }
-        }
-        return closest;
+        return new Point(hit.getX(), hit.getY());
     }
 
     /**
@@ -425,21 +415,4 @@ public class Line {
                 && point.getY() >= minY() - THRESHOLD && point.getY() <= maxY() + THRESHOLD;
     }
 
-    /**
-     * divide line to 5 parts for paddle.
-     * @return - list of lines made of the 5 zones.
-     */
-    public List<Line> divideTo5() {
-        List<Line> zones = new ArrayList<>();
-        Point p1 = this.start();
-        double size = Math.abs(this.end.getX() - this.start.getX()) / 5;
-        for (int i = 0; i < 5; i++) {
-            Point p2 = new Point(p1.getX() + size, this.start.getY());
-            zones.add(new Line(p1, p2));
-            p1 = p2;
-        }
-        //return list of lines
-        return zones;
-    }
-
 }
\ No newline at end of file
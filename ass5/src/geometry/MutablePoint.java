@@ -0,0 +1,76 @@
+package geometry;
+
+/**
+ * Class to represent a point that can be moved in place.
+ * Meant as scratch space for hot loops (E.G: the center of a moving ball), so updating a position every step doesn't
+ * create a new {@link Point}. Anything that keeps a position around should keep an immutable {@link Point} instead.
+ * @author Yuval Anteby
+ */
+public class MutablePoint {
+    private double x;
+    private double y;
+
+    /**
+     * Default constructor, creates a point at (0, 0).
+     */
+    public MutablePoint() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructor for the MutablePoint class.
+     * @param x - x value of the point.
+     * @param y - y value of the point.
+     */
+    public MutablePoint(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Getter for the x value.
+     * @return - x value of the point.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Getter for the y value.
+     * @return - y value of the point.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Move the point.
+     * @param newX - new x value.
+     * @param newY - new y value.
+     */
+    public void set(double newX, double newY) {
+        this.x = newX;
+        this.y = newY;
+    }
+
+    /**
+     * Move the point to the position of another point.
+     * @param other - point to copy the position from.
+     */
+    public void set(Point other) {
+        set(other.getX(), other.getY());
+    }
+
+    /**
+     * Create an immutable copy of the current position.
+     * @return - new point with the same x and y values.
+     */
+    public Point toPoint() {
+        return new Point(this.x, this.y);
+    }
+
+    @Override
+    public String toString() {
+        return "MutablePoint: (" + this.x + ", " + this.y + ")";
+    }
+}
@@ -1,15 +1,16 @@
 package geometry;
 
-import java.util.Random;
+import util.RandomSource;
 
 /**
  * Class to represent a point.
- * Includes the x and y values of the point.
+ * Includes the x and y values of the point. Points are immutable, so they can be shared between shapes and returned by
+ * getters without copying them. Hot loops that move a position every step use a {@link MutablePoint} instead.
  * @author Yuval Anteby
  */
-public class Point {
-    private double x;
-    private double y;
+public final class Point {
+    private final double x;
+    private final double y;
 
     /**
      * Constructor for the Point class.
@@ -64,34 +65,18 @@ public class Point {
         return this.y;
     }
 
-    /**
-     * Setter for the x value of the point.
-     * @param x - new x value.
-     */
-    public void setX(double x) {
-        this.x = x;
-    }
-
-    /**
-     * Setter for the y value of the point.
-     * @param y - new y value.
-     */
-    public void setY(double y) {
-        this.y = y;
-    }
-
     /**
      * Generate a random point in the provided area.
+     * @param rnd  - random source of the game.
      * @param minX - min value allowed for x.
      * @param maxX - max value allowed for x.
      * @param minY - min value allowed for y.
      * @param maxY - max value allowed for y.
      * @return - point instance between the min and max values of x and y.
      */
-    public static Point randomPoint(int minX, int maxX, int minY, int maxY) {
-        Random rnd = new Random();
-        int x = rnd.nextInt((maxX - minX) + 1) + minX;
-        int y = rnd.nextInt((maxY - minY) + 1) + minY;
+    public static Point randomPoint(RandomSource rnd, int minX, int maxX, int minY, int maxY) {
+        int x = rnd.nextInt(minX, maxX);
+        int y = rnd.nextInt(minY, maxY);
         return new Point(x, y);
     }
 
@@ -1,17 +1,30 @@
 package geometry;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * Class to represent a rectangle.
+ * The corners, sides and bounds are calculated once for every position of the rectangle (only the paddle moves), so
+ * the getters don't create new objects and intersection tests can reject far segments before any line math.
  * @author Yuval Anteby
  */
 public class Rectangle {
+    //Threshold for double calculation.
+    private static final double THRESHOLD = 0.0001;
+
     private Point upperLeft;
-    private double width;
-    private double height;
+    private Point upperRight;
+    private Point bottomRight;
+    private Point bottomLeft;
+    //Sides in the order they're checked for intersections: left, right, top, bottom.
+    private final Line[] sides = new Line[4];
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private final double width;
+    private final double height;
 
     /**
      * Constructor to create new rectangle.
@@ -20,9 +33,9 @@ public class Rectangle {
      * @param height - height of rectangle.
      */
     public Rectangle(Point upperLeft, double width, double height) {
-        this.upperLeft = upperLeft;
         this.width = width;
         this.height = height;
+        setUpperLeft(upperLeft);
     }
 
     /**
@@ -54,7 +67,7 @@ public class Rectangle {
      * @return - point variable of the top right point.
      */
     public Point getUpperRight() {
-        return new Point(this.upperLeft.getX() + this.width, this.getUpperLeft().getY());
+        return this.upperRight;
     }
 
     /**
@@ -62,7 +75,7 @@ public class Rectangle {
      * @return - point variable of the bottom right point.
      */
     public Point getBottomRight() {
-        return new Point(this.upperLeft.getX() + this.width, this.getUpperLeft().getY() + this.height);
+        return this.bottomRight;
     }
 
     /**
@@ -70,47 +83,103 @@ public class Rectangle {
      * @return - point variable of the bottom left point.
      */
     public Point getBottomLeft() {
-        return new Point(this.upperLeft.getX(), this.getUpperLeft().getY() + this.height);
+        return this.bottomLeft;
+    }
+
+    /**
+     * Getter for the smallest x value of the rectangle.
+     * @return - x value of the left side.
+     */
+    public double getMinX() {
+        return this.minX;
     }
 
     /**
-     * Setter for the upper left point of the rectangle.
+     * Getter for the smallest y value of the rectangle.
+     * @return - y value of the top side.
+     */
+    public double getMinY() {
+        return this.minY;
+    }
+
+    /**
+     * Getter for the largest x value of the rectangle.
+     * @return - x value of the right side.
+     */
+    public double getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * Getter for the largest y value of the rectangle.
+     * @return - y value of the bottom side.
+     */
+    public double getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * Setter for the upper left point of the rectangle, recalculates the corners, sides and bounds.
      * @param newUpperLeft - new upper left point to be set.
      */
     public void setUpperLeft(Point newUpperLeft) {
+        this.minX = newUpperLeft.getX();
+        this.minY = newUpperLeft.getY();
+        this.maxX = this.minX + this.width;
+        this.maxY = this.minY + this.height;
         this.upperLeft = newUpperLeft;
+        this.upperRight = new Point(this.maxX, this.minY);
+        this.bottomRight = new Point(this.maxX, this.maxY);
+        this.bottomLeft = new Point(this.minX, this.maxY);
+        this.sides[0] = new Line(this.upperLeft, this.bottomLeft);
+        this.sides[1] = new Line(this.upperRight, this.bottomRight);
+        this.sides[2] = new Line(this.upperLeft, this.upperRight);
+        this.sides[3] = new Line(this.bottomLeft, this.bottomRight);
     }
 
     /**
-     * Create a line instance using the top left and top right points of the rectangle.
+     * Getter for the line from the top left point to the top right point of the rectangle.
      * @return - line of the top of the rectangle.
      */
     public Line getTopLine() {
-        return new Line(this.upperLeft, getUpperRight());
+        return this.sides[2];
     }
 
     /**
-     * Create a line instance using the top right and bottom right points of the rectangle.
+     * Getter for the line from the top right point to the bottom right point of the rectangle.
      * @return - line of the right of the rectangle.
      */
     public Line getRightLine() {
-        return new Line(getUpperRight(), getBottomRight());
+        return this.sides[1];
     }
 
     /**
-     * Create a line instance using the bottom left and bottom right points of the rectangle.
+     * Getter for the line from the bottom left point to the bottom right point of the rectangle.
      * @return - line of the bottom of the rectangle.
      */
     public Line getBottomLine() {
-        return new Line(getBottomLeft(), getBottomRight());
+        return this.sides[3];
     }
 
     /**
-     * Create a line instance using the top left and bottom left points of the rectangle.
+     * Getter for the line from the top left point to the bottom left point of the rectangle.
      * @return - line of the left of the rectangle.
      */
     public Line getLeftLine() {
-        return new Line(this.upperLeft, getBottomLeft());
+        return this.sides[0];
+    }
+
+    /**
+     * Check if the bounding box of a segment overlaps the rectangle, a cheap test to run before any intersection.
+     * @param x1 - x value of the start of the segment.
+     * @param y1 - y value of the start of the segment.
+     * @param x2 - x value of the end of the segment.
+     * @param y2 - y value of the end of the segment.
+     * @return - false if the segment surely doesn't touch the rectangle, otherwise true.
+     */
+    public boolean boundsOverlap(double x1, double y1, double x2, double y2) {
+        return Math.max(x1, x2) >= this.minX - THRESHOLD && Math.min(x1, x2) <= this.maxX + THRESHOLD
+                && Math.max(y1, y2) >= this.minY - THRESHOLD && Math.min(y1, y2) <= this.maxY + THRESHOLD;
     }
 
     /**
@@ -122,9 +191,10 @@ public class Rectangle {
      */
     public List<Point> intersectionPoints(Line line) {
         List<Point> intersections = new ArrayList<>();
-        List<Line> sides = Arrays.asList(getLeftLine(), getRightLine(), getTopLine(), getBottomLine());
-
-        for (Line side : sides) {
+        if (!boundsOverlap(line.start().getX(), line.start().getY(), line.end().getX(), line.end().getY())) {
+            return intersections;
+        }
+        for (Line side : this.sides) {
             Point intersection = side.intersectionWith(line);
             if (intersection != null) {
                 intersections.add(intersection);
@@ -133,6 +203,64 @@ public class Rectangle {
         return intersections;
     }
 
+    /**
+     * Find where a segment first touches the border of this rectangle, without creating any objects.
+     * @param x1  - x value of the start of the segment.
+     * @param y1  - y value of the start of the segment.
+     * @param x2  - x value of the end of the segment.
+     * @param y2  - y value of the end of the segment.
+     * @param hit - result to be filled with the parameter, point and sides of the hit.
+     * @return - true if the segment touches the rectangle, otherwise false.
+     */
+    public boolean intersect(double x1, double y1, double x2, double y2, SegmentHit hit) {
+        if (!boundsOverlap(x1, y1, x2, y2)) {
+            hit.clear();
+            return false;
+        }
+        return SegmentHit.segmentBox(x1, y1, x2, y2, this.minX, this.minY, this.maxX, this.maxY, hit);
+    }
+
+    /**
+     * Find which sides of the rectangle contain a point.
+     * @param x - x value of the point.
+     * @param y - y value of the point.
+     * @return - bitmask of {@link SegmentHit} side flags, two flags for a corner and none if not on the border.
+     */
+    public int sidesAt(double x, double y) {
+        return sidesAt(x, y, this.minX, this.minY, this.maxX, this.maxY);
+    }
+
+    /**
+     * Find which sides of a box contain a point, for boxes that aren't kept as a rectangle.
+     * @param x    - x value of the point.
+     * @param y    - y value of the point.
+     * @param minX - left side of the box.
+     * @param minY - top side of the box.
+     * @param maxX - right side of the box.
+     * @param maxY - bottom side of the box.
+     * @return - bitmask of {@link SegmentHit} side flags, two flags for a corner and none if not on the border.
+     */
+    public static int sidesAt(double x, double y, double minX, double minY, double maxX, double maxY) {
+        int sides = SegmentHit.NONE;
+        if (x >= minX - THRESHOLD && x <= maxX + THRESHOLD) {
+            if (Math.abs(y - minY) <= THRESHOLD) {
+                sides |= SegmentHit.TOP;
+            }
+            if (Math.abs(y - maxY) <= THRESHOLD) {
+                sides |= SegmentHit.BOTTOM;
+            }
+        }
+        if (y >= minY - THRESHOLD && y <= maxY + THRESHOLD) {
+            if (Math.abs(x - minX) <= THRESHOLD) {
+                sides |= SegmentHit.LEFT;
+            }
+            if (Math.abs(x - maxX) <= THRESHOLD) {
+                sides |= SegmentHit.RIGHT;
+            }
+        }
+        return sides;
+    }
+
     @Override
     public String toString() {
         return "Rectangle [upperLeft=" + upperLeft + ", width=" + width + ", height=" + height + "]";
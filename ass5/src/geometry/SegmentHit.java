@@ -0,0 +1,295 @@
+package geometry;
+
+/**
+ * Class to hold the result of a segment and rectangle intersection test.
+ * The object is mutable so the same instance can be reused by hot loops without creating new objects.
+ * @author Yuval Anteby
+ */
+public class SegmentHit {
+    /**
+     * Flags for the sides of a rectangle, a hit on a corner will have two flags.
+     */
+    public static final int NONE = 0, LEFT = 1, RIGHT = 2, TOP = 4, BOTTOM = 8;
+    /**
+     * Combined flags, horizontal sides flip the y-axis velocity and vertical sides flip the x-axis velocity.
+     */
+    public static final int HORIZONTAL = TOP | BOTTOM, VERTICAL = LEFT | RIGHT;
+
+    private double t;
+    private double x;
+    private double y;
+    private double centerX;
+    private double centerY;
+    private int sides;
+
+    /**
+     * Default constructor, creates an empty hit.
+     */
+    public SegmentHit() {
+        clear();
+    }
+
+    /**
+     * Reset the hit to an empty hit.
+     */
+    public void clear() {
+        this.t = Double.POSITIVE_INFINITY;
+        this.x = Double.NaN;
+        this.y = Double.NaN;
+        this.centerX = Double.NaN;
+        this.centerY = Double.NaN;
+        this.sides = NONE;
+    }
+
+    /**
+     * Set the values of the hit.
+     * @param newT     - parameter of the hit along the segment, 0 is the start and 1 is the end.
+     * @param newX     - x value of the hit point.
+     * @param newY     - y value of the hit point.
+     * @param newSides - flags of the sides that were hit.
+     */
+    public void set(double newT, double newX, double newY, int newSides) {
+        set(newT, newX, newY, newX, newY, newSides);
+    }
+
+    /**
+     * Set the values of a hit made by a moving circle, where the touching point and the circle's center differ.
+     * @param newT       - parameter of the hit along the segment, 0 is the start and 1 is the end.
+     * @param newX       - x value of the touching point.
+     * @param newY       - y value of the touching point.
+     * @param newCenterX - x value of the circle's center at the moment of the hit.
+     * @param newCenterY - y value of the circle's center at the moment of the hit.
+     * @param newSides   - flags of the sides that were hit.
+     */
+    public void set(double newT, double newX, double newY, double newCenterX, double newCenterY, int newSides) {
+        this.t = newT;
+        this.x = newX;
+        this.y = newY;
+        this.centerX = newCenterX;
+        this.centerY = newCenterY;
+        this.sides = newSides;
+    }
+
+    /**
+     * Copy the values of another hit.
+     * @param other - hit to copy from.
+     */
+    public void set(SegmentHit other) {
+        set(other.t, other.x, other.y, other.centerX, other.centerY, other.sides);
+    }
+
+    /**
+     * Check if the hit holds an intersection.
+     * @return - true if there was an intersection, otherwise false.
+     */
+    public boolean isHit() {
+        return this.sides != NONE;
+    }
+
+    /**
+     * Getter for the parameter of the hit along the segment.
+     * @return - value between 0 (start of the segment) and 1 (end of the segment).
+     */
+    public double getT() {
+        return this.t;
+    }
+
+    /**
+     * Getter for the x value of the hit point.
+     * @return - x value of the hit point.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Getter for the y value of the hit point.
+     * @return - y value of the hit point.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Getter for the x value of the moving point at the moment of the hit, for a circle it's the circle's center.
+     * @return - x value of the moving point.
+     */
+    public double getCenterX() {
+        return this.centerX;
+    }
+
+    /**
+     * Getter for the y value of the moving point at the moment of the hit, for a circle it's the circle's center.
+     * @return - y value of the moving point.
+     */
+    public double getCenterY() {
+        return this.centerY;
+    }
+
+    /**
+     * Getter for the flags of the sides that were hit.
+     * @return - bitmask made of {@link #LEFT}, {@link #RIGHT}, {@link #TOP} and {@link #BOTTOM}.
+     */
+    public int getSides() {
+        return this.sides;
+    }
+
+    /**
+     * Find where a segment first touches the border of an axis aligned box, without creating any objects.
+     * Uses the slab test (Liang-Barsky): the segment is clipped against the x and y ranges of the box, the entry
+     * parameter is the last axis entered. If the segment starts inside the box the exit point is used instead, like
+     * the closest intersection with the sides of a rectangle.
+     * @param x1   - x value of the start of the segment.
+     * @param y1   - y value of the start of the segment.
+     * @param x2   - x value of the end of the segment.
+     * @param y2   - y value of the end of the segment.
+     * @param minX - left side of the box.
+     * @param minY - top side of the box.
+     * @param maxX - right side of the box.
+     * @param maxY - bottom side of the box.
+     * @param hit  - result to be filled, cleared if there is no intersection.
+     * @return - true if the segment touches the border of the box, otherwise false.
+     */
+    public static boolean segmentBox(double x1, double y1, double x2, double y2,
+                                     double minX, double minY, double maxX, double maxY, SegmentHit hit) {
+        double dx = x2 - x1, dy = y2 - y1;
+        double enterX, exitX, enterY, exitY;
+        int enterSideX, exitSideX, enterSideY, exitSideY;
+        //Clip against the x range of the box.
+        if (dx == 0) {
+            if (x1 < minX || x1 > maxX) {
+                hit.clear();
+                return false;
+            }
+            enterX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+            enterSideX = NONE;
+            exitSideX = NONE;
+        } else if (dx > 0) {
+            enterX = (minX - x1) / dx;
+            exitX = (maxX - x1) / dx;
+            enterSideX = LEFT;
+            exitSideX = RIGHT;
+        } else {
+            enterX = (maxX - x1) / dx;
+            exitX = (minX - x1) / dx;
+            enterSideX = RIGHT;
+            exitSideX = LEFT;
+        }
+        //Clip against the y range of the box.
+        if (dy == 0) {
+            if (y1 < minY || y1 > maxY) {
+                hit.clear();
+                return false;
+            }
+            enterY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+            enterSideY = NONE;
+            exitSideY = NONE;
+        } else if (dy > 0) {
+            enterY = (minY - y1) / dy;
+            exitY = (maxY - y1) / dy;
+            enterSideY = TOP;
+            exitSideY = BOTTOM;
+        } else {
+            enterY = (maxY - y1) / dy;
+            exitY = (minY - y1) / dy;
+            enterSideY = BOTTOM;
+            exitSideY = TOP;
+        }
+        double enter = Math.max(enterX, enterY), exit = Math.min(exitX, exitY);
+        if (enter > exit) {
+            hit.clear();
+            return false;
+        }
+        double t;
+        int sides;
+        if (enter >= 0) {
+            //The segment starts outside the box (or on its border).
+            t = enter;
+            sides = (enterX == enter ? enterSideX : NONE) | (enterY == enter ? enterSideY : NONE);
+        } else if (exit >= 0 && exit <= 1) {
+            //The segment starts inside the box and leaves it.
+            t = exit;
+            sides = (exitX == exit ? exitSideX : NONE) | (exitY == exit ? exitSideY : NONE);
+        } else {
+            //The box is behind the start or contains the whole segment.
+            hit.clear();
+            return false;
+        }
+        if (t > 1 || sides == NONE) {
+            hit.clear();
+            return false;
+        }
+        //Snap the hit point onto the side that was hit so it lies exactly on the border.
+        double x = (sides & LEFT) != 0 ? minX : ((sides & RIGHT) != 0 ? maxX : x1 + t * dx);
+        double y = (sides & TOP) != 0 ? minY : ((sides & BOTTOM) != 0 ? maxY : y1 + t * dy);
+        hit.set(t, x, y, sides);
+        return true;
+    }
+
+    /**
+     * Find where a moving circle first touches an axis aligned box, without creating any objects.
+     * The box is expanded by the radius (Minkowski sum, corners are kept square) so the circle's center can be traced
+     * as a segment. Unlike {@link #segmentBox}, a circle that already overlaps the box only hits it if it keeps moving
+     * into the side it overlaps the least, so a circle that was just reflected can always leave.
+     * @param x1     - x value of the circle's center at the start.
+     * @param y1     - y value of the circle's center at the start.
+     * @param x2     - x value of the circle's center at the end.
+     * @param y2     - y value of the circle's center at the end.
+     * @param radius - radius of the circle.
+     * @param minX   - left side of the box.
+     * @param minY   - top side of the box.
+     * @param maxX   - right side of the box.
+     * @param maxY   - bottom side of the box.
+     * @param hit    - result to be filled with the touching point on the box and the center at that moment.
+     * @return - true if the circle touches the box, otherwise false.
+     */
+    public static boolean sweptCircleBox(double x1, double y1, double x2, double y2, double radius,
+                                         double minX, double minY, double maxX, double maxY, SegmentHit hit) {
+        double left = minX - radius, top = minY - radius, right = maxX + radius, bottom = maxY + radius;
+        double dx = x2 - x1, dy = y2 - y1;
+        double t;
+        int sides;
+        if (x1 > left && x1 < right && y1 > top && y1 < bottom) {
+            //Already overlapping, collide with the closest side only while moving into it.
+            double penetration = x1 - left;
+            sides = dx > 0 ? LEFT : NONE;
+            if (right - x1 < penetration) {
+                penetration = right - x1;
+                sides = dx < 0 ? RIGHT : NONE;
+            }
+            if (y1 - top < penetration) {
+                penetration = y1 - top;
+                sides = dy > 0 ? TOP : NONE;
+            }
+            if (bottom - y1 < penetration) {
+                sides = dy < 0 ? BOTTOM : NONE;
+            }
+            if (sides == NONE) {
+                hit.clear();
+                return false;
+            }
+            t = 0;
+        } else {
+            if (!segmentBox(x1, y1, x2, y2, left, top, right, bottom, hit)) {
+                return false;
+            }
+            t = hit.t;
+            sides = hit.sides;
+            //Touching the border while moving away from it isn't a hit.
+            if (((sides & LEFT) != 0 && dx <= 0) || ((sides & RIGHT) != 0 && dx >= 0)
+                    || ((sides & TOP) != 0 && dy <= 0) || ((sides & BOTTOM) != 0 && dy >= 0)) {
+                hit.clear();
+                return false;
+            }
+        }
+        double centerX = (sides & LEFT) != 0 ? left : ((sides & RIGHT) != 0 ? right : x1 + t * dx);
+        double centerY = (sides & TOP) != 0 ? top : ((sides & BOTTOM) != 0 ? bottom : y1 + t * dy);
+        //The touching point is the closest point of the box to the center.
+        double x = Math.max(minX, Math.min(maxX, centerX));
+        double y = Math.max(minY, Math.min(maxY, centerY));
+        hit.set(t, x, y, centerX, centerY, sides);
+        return true;
+    }
+}
@@ -36,7 +36,11 @@ public class BlockRemover implements HitListener {
     // Remember to remove this listener from the block that is being removed from the game.
     @Override
     public void hitEvent(Block beingHit, Ball hitter) {
-        hitter.setColor(beingHit.getColor());
+        //A block with hit points left stays, the ball keeps its color so it can hit the block again.
+        if (beingHit.getHitPoints() > 0) {
+            return;
+        }
+        hitter.setColorId(beingHit.getColorId());
         beingHit.removeFromGame(this.game);
         this.remainingBlocks.decrease(1);
     }
@@ -0,0 +1,138 @@
+package graphics;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draw surface that draws on an off-screen image, with the same meaning for every call as the GUI's surface.
+ * Also counts the amount of draw calls made on it.
+ * @author Yuval Anteby
+ */
+public class ImageDrawSurface implements DrawSurface {
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private int drawCalls;
+
+    /**
+     * Constructor for the class, creates a transparent image.
+     * @param width  - width of the image.
+     * @param height - height of the image.
+     */
+    public ImageDrawSurface(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.graphics = this.image.createGraphics();
+    }
+
+    /**
+     * Getter for the image the surface draws on.
+     * @return - image of the surface.
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Getter for the amount of draw calls since the surface was last cleared.
+     * @return - amount of draw calls.
+     */
+    public int getDrawCalls() {
+        return this.drawCalls;
+    }
+
+    /**
+     * Erase everything drawn on the image, making it transparent again, and reset the draw calls count.
+     */
+    public void clear() {
+        this.graphics.setBackground(new Color(0, 0, 0, 0));
+        this.graphics.clearRect(0, 0, this.image.getWidth(), this.image.getHeight());
+        this.drawCalls = 0;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.drawCalls++;
+        this.graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.drawCalls++;
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        this.drawCalls++;
+        this.graphics.drawOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        this.drawCalls++;
+        this.graphics.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        this.drawCalls++;
+        this.graphics.drawRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        this.drawCalls++;
+        this.graphics.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.drawCalls++;
+        this.graphics.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        drawOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        fillOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String s, int fontSize) {
+        this.drawCalls++;
+        Font font = this.graphics.getFont();
+        this.graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.graphics.drawString(s, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon p) {
+        this.drawCalls++;
+        this.graphics.drawPolygon(p);
+    }
+
+    @Override
+    public void fillPolygon(Polygon p) {
+        this.drawCalls++;
+        this.graphics.fillPolygon(p);
+    }
+}
@@ -0,0 +1,84 @@
+package graphics;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * Draw surface that ignores every drawing, used to run the game without a window.
+ * @author Yuval Anteby
+ */
+public class NullDrawSurface implements DrawSurface {
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructor for the class.
+     * @param width  - width of the surface.
+     * @param height - height of the surface.
+     */
+    public NullDrawSurface(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+    }
+}
@@ -0,0 +1,59 @@
+package graphics;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ids of the colors used by the game, and a cache of their color objects.
+ * The id of a color is its ARGB value, so balls and blocks keep their color as an int, checking if two of them have
+ * the same color is a single int comparison, and no table of ids is shared between games.
+ * The cache holds a fixed amount of colors and a color replaces the one in its slot, so drawing the colors of ids
+ * rarely creates a color object and the cache never grows. It's read and written from any thread without locks, at
+ * worst a color object is created again.
+ * @author Yuval Anteby
+ */
+public final class Palette {
+    //Amount of slots of the cache, a power of two.
+    private static final int CAPACITY = 1024;
+    private static final AtomicReferenceArray<Color> CACHE = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * Hidden constructor, the class only has static functions.
+     */
+    private Palette() {
+    }
+
+    /**
+     * Get the id of a color.
+     * @param color - color to look up.
+     * @return - id of the color, its ARGB value.
+     */
+    public static int idOf(Color color) {
+        return color.getRGB();
+    }
+
+    /**
+     * Get the color of an id.
+     * @param id - id of the color, its ARGB value.
+     * @return - color object of the id, shared with the other users of the id while it stays in the cache.
+     */
+    public static Color colorOf(int id) {
+        int slot = mix(id) & (CAPACITY - 1);
+        Color color = CACHE.get(slot);
+        if (color == null || color.getRGB() != id) {
+            color = new Color(id, true);
+            CACHE.lazySet(slot, color);
+        }
+        return color;
+    }
+
+    /**
+     * Spread the bits of an ARGB value, neighbouring colors would otherwise fall into neighbouring slots.
+     * @param argb - ARGB value.
+     * @return - hash of the value.
+     */
+    private static int mix(int argb) {
+        int h = argb * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
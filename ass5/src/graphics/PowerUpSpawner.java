@@ -0,0 +1,36 @@
+package graphics;
+
+import collision.HitListener;
+import game.Block;
+import game.Game;
+import geometry.Ball;
+import geometry.Point;
+import physics.Velocity;
+
+/**
+ * Class in charge of the power ups dropped by the blocks: when a block with a power up breaks, an extra ball is
+ * launched from the block's center, mirroring the horizontal direction of the ball that broke it.
+ * @author Yuval Anteby
+ */
+public class PowerUpSpawner implements HitListener {
+    private Game game;
+
+    /**
+     * Constructor for the class.
+     * @param game - game reference the balls are added to.
+     */
+    public PowerUpSpawner(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public void hitEvent(Block beingHit, Ball hitter) {
+        if (beingHit.getHitPoints() > 0 || !beingHit.hasPowerUp()) {
+            return;
+        }
+        Point center = new Point((beingHit.getMinX() + beingHit.getMaxX()) / 2,
+                (beingHit.getMinY() + beingHit.getMaxY()) / 2);
+        this.game.addBall(new Ball(center, hitter.getSize(), hitter.getColor(),
+                new Velocity(-hitter.getDx(), hitter.getDy())));
+    }
+}
@@ -0,0 +1,239 @@
+package graphics;
+
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+/**
+ * Draw surface that records the draw calls made on it and passes them to another surface in batches.
+ * When the queue is flushed the commands are sorted into passes: every filled shape first, then every outline and
+ * line, then every text, and inside a pass by color, so the target's color only changes once per color of a pass
+ * instead of twice per sprite. Commands of the same pass and color keep their order.
+ * Drawing an image is a barrier: the commands recorded before it are flushed first, so the image (E.G: the static
+ * layer) stays below everything drawn after it. Between two barriers shapes of different colors are assumed not to
+ * overlap, or to overlap in no particular order (E.G: the balls and the paddle).
+ * @author Yuval Anteby
+ */
+public class RenderQueue implements DrawSurface {
+    private static final int DEFAULT_CAPACITY = 256;
+    //Passes of the commands, in the order they are flushed.
+    private static final int FILL = 0, OUTLINE = 1, TEXT = 2;
+    //Kinds of commands.
+    private static final int FILL_RECTANGLE = 0, FILL_OVAL = 1, FILL_POLYGON = 2, DRAW_RECTANGLE = 3, DRAW_OVAL = 4,
+            DRAW_LINE = 5, DRAW_POLYGON = 6, DRAW_TEXT = 7;
+    private static final int[] PASS_OF = {FILL, FILL, FILL, OUTLINE, OUTLINE, OUTLINE, OUTLINE, TEXT};
+    //The index of a command takes the lowest bits of its key, its color (an ARGB value) the next 32 bits.
+    private static final int INDEX_BITS = 28;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final long COLOR_MASK = 0xFFFFFFFFL;
+    private static final int MAX_CAPACITY = 1 << INDEX_BITS;
+
+    private DrawSurface target;
+    private int color = Palette.idOf(Color.BLACK);
+    private int size;
+    //Sort key of every command: its pass and color above its index in the queue.
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private int[] kinds = new int[DEFAULT_CAPACITY];
+    private int[] values = new int[DEFAULT_CAPACITY * 4];
+    private Object[] payloads = new Object[DEFAULT_CAPACITY];
+    private int commands;
+    private int colorChanges;
+
+    /**
+     * Start recording a frame that will be flushed to a surface.
+     * @param surface - surface the commands are drawn on.
+     */
+    public void begin(DrawSurface surface) {
+        if (surface == null) {
+            throw new IllegalArgumentException("Target surface can't be null");
+        }
+        this.target = surface;
+        this.size = 0;
+        this.commands = 0;
+        this.colorChanges = 0;
+    }
+
+    /**
+     * Draw every recorded command on the target surface, sorted by pass and color, and empty the queue.
+     */
+    public void flush() {
+        Arrays.sort(this.keys, 0, this.size);
+        //Out of the range of the colors, so the first command always sets the color.
+        long current = -1;
+        for (int i = 0; i < this.size; i++) {
+            long key = this.keys[i];
+            long commandColor = key >>> INDEX_BITS & COLOR_MASK;
+            if (commandColor != current) {
+                current = commandColor;
+                this.target.setColor(Palette.colorOf((int) commandColor));
+                this.colorChanges++;
+            }
+            replay((int) key & INDEX_MASK);
+        }
+        this.commands += this.size;
+        Arrays.fill(this.payloads, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * Getter for the amount of draw commands recorded since the frame began.
+     * @return - amount of commands.
+     */
+    public int getCommands() {
+        return this.commands + this.size;
+    }
+
+    /**
+     * Getter for the amount of times the color of the target surface was set since the frame began.
+     * @return - amount of color changes.
+     */
+    public int getColorChanges() {
+        return this.colorChanges;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.target.getHeight();
+    }
+
+    @Override
+    public void setColor(Color newColor) {
+        this.color = Palette.idOf(newColor);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        add(DRAW_LINE, x1, y1, x2, y2, null);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        add(DRAW_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        add(FILL_OVAL, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        add(DRAW_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        add(FILL_RECTANGLE, x, y, w, h, null);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        flush();
+        this.target.drawImage(x, y, image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        drawOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        fillOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        add(DRAW_TEXT, x, y, fontSize, 0, text);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        add(DRAW_POLYGON, 0, 0, 0, 0, polygon);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        add(FILL_POLYGON, 0, 0, 0, 0, polygon);
+    }
+
+    /**
+     * Record a command in the current color.
+     * @param kind    - kind of the command.
+     * @param a       - first value of the command (E.G: x value).
+     * @param b       - second value of the command (E.G: y value).
+     * @param c       - third value of the command (E.G: width).
+     * @param d       - fourth value of the command (E.G: height).
+     * @param payload - object the command draws (E.G: a polygon or a text), null if it has none.
+     */
+    private void add(int kind, int a, int b, int c, int d, Object payload) {
+        if (this.size == this.kinds.length) {
+            grow();
+        }
+        int i = this.size++;
+        this.kinds[i] = kind;
+        this.values[i * 4] = a;
+        this.values[i * 4 + 1] = b;
+        this.values[i * 4 + 2] = c;
+        this.values[i * 4 + 3] = d;
+        this.payloads[i] = payload;
+        //The index is the lowest part of the key, so commands of the same pass and color keep their order.
+        this.keys[i] = ((long) PASS_OF[kind] << Integer.SIZE | this.color & COLOR_MASK) << INDEX_BITS | i;
+    }
+
+    /**
+     * Draw a recorded command on the target surface, in the color that was already set.
+     * @param i - index of the command.
+     */
+    private void replay(int i) {
+        int a = this.values[i * 4], b = this.values[i * 4 + 1], c = this.values[i * 4 + 2], d = this.values[i * 4 + 3];
+        switch (this.kinds[i]) {
+            case FILL_RECTANGLE:
+                this.target.fillRectangle(a, b, c, d);
+                break;
+            case FILL_OVAL:
+                this.target.fillOval(a, b, c, d);
+                break;
+            case FILL_POLYGON:
+                this.target.fillPolygon((Polygon) this.payloads[i]);
+                break;
+            case DRAW_RECTANGLE:
+                this.target.drawRectangle(a, b, c, d);
+                break;
+            case DRAW_OVAL:
+                this.target.drawOval(a, b, c, d);
+                break;
+            case DRAW_LINE:
+                this.target.drawLine(a, b, c, d);
+                break;
+            case DRAW_POLYGON:
+                this.target.drawPolygon((Polygon) this.payloads[i]);
+                break;
+            default:
+                this.target.drawText(a, b, (String) this.payloads[i], c);
+                break;
+        }
+    }
+
+    /**
+     * Double the capacity of the arrays.
+     */
+    private void grow() {
+        if (this.kinds.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Too many draw commands in a frame, flush the queue first");
+        }
+        int capacity = this.kinds.length * 2;
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.kinds = Arrays.copyOf(this.kinds, capacity);
+        this.values = Arrays.copyOf(this.values, capacity * 4);
+        this.payloads = Arrays.copyOf(this.payloads, capacity);
+    }
+}
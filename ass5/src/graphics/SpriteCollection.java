@@ -1,22 +1,45 @@
 package graphics;
 
 import biuoop.DrawSurface;
-
-import java.util.ArrayList;
-import java.util.List;
+import util.EntityRegistry;
 
 /**
  * Class to contain a list of objects which use sprite interface.
+ * Sprites that look the same on every frame (E.G: background, bounds and blocks) can be added as static sprites, they
+ * are drawn once into an off-screen layer that is redrawn only after a static sprite is added or removed. Every frame
+ * draws the layer as a single image and then the rest of the sprites on top of it. The static sprites are skipped
+ * on a {@link NullDrawSurface}, so headless games never draw the layer.
+ * Removing a sprite takes constant time and is safe while the sprites are being notified, the removed sprites are
+ * dropped for good by {@link #compact()} at the end of a tick.
+ * The other sprites may be drawn through a {@link RenderQueue}, which batches their draw calls by color.
  * @author Yuval Anteby 
  */
 public class SpriteCollection {
-    private List<Sprite> spriteList;
+    private EntityRegistry<Sprite> spriteList;
+    private EntityRegistry<Sprite> staticSprites;
+    private ImageDrawSurface layer;
+    private boolean layerValid;
+    private int staticDrawCalls;
+    private long layerRebuilds;
+    private RenderQueue queue;
 
     /**
-     * Default constructor for the class, will initialize a new array list.
+     * Default constructor for the class, will initialize empty registries.
      */
     public SpriteCollection() {
-        this.spriteList = new ArrayList<>();
+        this.spriteList = new EntityRegistry<>();
+        this.staticSprites = new EntityRegistry<>();
+    }
+
+    /**
+     * Add a new sprite that never changes its look on its own, it will be drawn as part of the static layer.
+     * The layer is drawn below every other sprite, in the order the static sprites were added.
+     * @param s - a new static sprite to be added.
+     */
+    public void addStaticSprite(Sprite s) {
+        if (staticSprites.add(s)) {
+            this.layerValid = false;
+        }
     }
 
     /**
@@ -24,9 +47,7 @@ public class SpriteCollection {
      * @param s - a new sprite to be added.
      */
     public void addSprite(Sprite s) {
-        if (s != null) {
-            spriteList.add(s);
-        }
+        spriteList.add(s);
     }
 
     /**
@@ -34,18 +55,38 @@ public class SpriteCollection {
      * @param s - sprite object to be removed.
      */
     public void removeSprite(Sprite s) {
-        if (s != null) {
+        if (s == null) {
+            return;
+        }
+        if (staticSprites.remove(s)) {
+            this.layerValid = false;
+        } else {
             spriteList.remove(s);
         }
     }
 
+    /**
+     * Redraw the static layer before the next frame, used when a static sprite changed its look (E.G: a brick table
+     * after one of its bricks was broken).
+     */
+    public void invalidateLayer() {
+        this.layerValid = false;
+    }
+
     /**
      * Notify every sprite that time passed.
      */
     public void notifyAllTimePassed() {
-        for (int i = 0; i < spriteList.size(); i++) {
-            spriteList.get(i).timePassed();
-        }
+        notifyTimePassed(staticSprites);
+        notifyTimePassed(spriteList);
+    }
+
+    /**
+     * Drop the removed sprites from the registries, should be called once the tick is over.
+     */
+    public void compact() {
+        staticSprites.compact();
+        spriteList.compact();
     }
 
     /**
@@ -53,8 +94,110 @@ public class SpriteCollection {
      * @param d     - the draw surface of the gui.
      */
     public void drawAllOn(DrawSurface d) {
-        for (Sprite sprite: spriteList) {
-            sprite.drawOn(d);
+        DrawSurface surface = d;
+        if (this.queue != null) {
+            this.queue.begin(d);
+            surface = this.queue;
+        }
+        //Nothing drawn on a null surface is shown, so the static layer isn't drawn for it (E.G: headless games).
+        if (!staticSprites.isEmpty() && !(d instanceof NullDrawSurface)) {
+            if (!this.layerValid || this.layer == null || this.layer.getWidth() != d.getWidth()
+                    || this.layer.getHeight() != d.getHeight()) {
+                rebuildLayer(d.getWidth(), d.getHeight());
+            }
+            surface.drawImage(0, 0, this.layer.getImage());
+        }
+        drawAll(spriteList, surface);
+        if (this.queue != null) {
+            this.queue.flush();
+        }
+    }
+
+    /**
+     * Set the queue the sprites other than the static ones are drawn through. The static layer keeps the order its
+     * sprites were added in, and is drawn below the queued sprites.
+     * @param renderQueue - queue batching the draw calls by color, null to draw every sprite directly.
+     */
+    public void setRenderQueue(RenderQueue renderQueue) {
+        this.queue = renderQueue;
+    }
+
+    /**
+     * Draw the static layer ahead of time, so the first frame drawn on a surface of the same size doesn't have to.
+     * @param width  - width of the surface the sprites will be drawn on.
+     * @param height - height of the surface the sprites will be drawn on.
+     */
+    public void prepareLayer(int width, int height) {
+        if (!staticSprites.isEmpty() && (!this.layerValid || this.layer == null || this.layer.getWidth() != width
+                || this.layer.getHeight() != height)) {
+            rebuildLayer(width, height);
+        }
+    }
+
+    /**
+     * Getter for the amount of draw calls it takes to draw every static sprite directly.
+     * @return - amount of draw calls of the static layer.
+     */
+    public int getStaticDrawCalls() {
+        return this.staticDrawCalls;
+    }
+
+    /**
+     * Getter for the amount of draw calls saved on every frame that reuses the static layer.
+     * @return - draw calls of the static sprites minus the single call that draws the layer.
+     */
+    public int getDrawCallsSaved() {
+        return Math.max(0, this.staticDrawCalls - 1);
+    }
+
+    /**
+     * Getter for the amount of times the static layer was redrawn.
+     * @return - amount of redraws of the layer.
+     */
+    public long getLayerRebuilds() {
+        return this.layerRebuilds;
+    }
+
+    /**
+     * Draw every static sprite into the off-screen layer.
+     * @param width  - width of the surface the layer is drawn on.
+     * @param height - height of the surface the layer is drawn on.
+     */
+    private void rebuildLayer(int width, int height) {
+        if (this.layer == null || this.layer.getWidth() != width || this.layer.getHeight() != height) {
+            this.layer = new ImageDrawSurface(width, height);
+        }
+        this.layer.clear();
+        drawAll(staticSprites, this.layer);
+        this.staticDrawCalls = this.layer.getDrawCalls();
+        this.layerValid = true;
+        this.layerRebuilds++;
+    }
+
+    /**
+     * Notify every sprite of a registry that time passed, skipping the sprites removed during the loop.
+     * @param sprites - registry of sprites.
+     */
+    private static void notifyTimePassed(EntityRegistry<Sprite> sprites) {
+        for (int i = 0; i < sprites.slotCount(); i++) {
+            Sprite sprite = sprites.get(i);
+            if (sprite != null) {
+                sprite.timePassed();
+            }
+        }
+    }
+
+    /**
+     * Draw every sprite of a registry.
+     * @param sprites - registry of sprites.
+     * @param d       - surface to draw on.
+     */
+    private static void drawAll(EntityRegistry<Sprite> sprites, DrawSurface d) {
+        for (int i = 0; i < sprites.slotCount(); i++) {
+            Sprite sprite = sprites.get(i);
+            if (sprite != null) {
+                sprite.drawOn(d);
+            }
         }
     }
 }
@@ -0,0 +1,82 @@
+package input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of input commands for a single producer thread and a single consumer thread.
+ * Every entry is a commands bitmask and the time it was sampled. Each side only writes its own position: the producer
+ * publishes an entry by moving the tail with a release write after filling the slot, and the consumer frees a slot by
+ * moving the head the same way, so neither side ever waits for the other.
+ * @author Yuval Anteby
+ */
+public class CommandQueue {
+    private final int mask;
+    private final int[] commands;
+    private final long[] stamps;
+    //Next entry to read, only written by the consumer.
+    private final AtomicLong head = new AtomicLong();
+    //Next entry to write, only written by the producer.
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructor for the queue.
+     * @param capacity - most entries the queue holds, must be a positive power of two.
+     */
+    public CommandQueue(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.mask = capacity - 1;
+        this.commands = new int[capacity];
+        this.stamps = new long[capacity];
+    }
+
+    /**
+     * Add an entry after the last one, only called by the producer thread.
+     * @param newCommands - bitmask of {@link InputSource} flags.
+     * @param stamp       - time the commands were sampled, in nanoseconds.
+     * @return - true if the entry was added, false if the queue is full.
+     */
+    public boolean offer(int newCommands, long stamp) {
+        long t = this.tail.get();
+        if (t - this.head.getAcquire() > this.mask) {
+            return false;
+        }
+        int slot = (int) t & this.mask;
+        this.commands[slot] = newCommands;
+        this.stamps[slot] = stamp;
+        this.tail.setRelease(t + 1);
+        return true;
+    }
+
+    /**
+     * Check if there are entries to read, only called by the consumer thread.
+     * @return - true if the queue is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        return this.head.get() == this.tail.getAcquire();
+    }
+
+    /**
+     * Getter for the commands of the first entry, only called by the consumer thread on a queue that isn't empty.
+     * @return - bitmask of {@link InputSource} flags.
+     */
+    public int peekCommands() {
+        return this.commands[(int) this.head.get() & this.mask];
+    }
+
+    /**
+     * Getter for the time of the first entry, only called by the consumer thread on a queue that isn't empty.
+     * @return - time the commands were sampled, in nanoseconds.
+     */
+    public long peekStamp() {
+        return this.stamps[(int) this.head.get() & this.mask];
+    }
+
+    /**
+     * Remove the first entry, only called by the consumer thread on a queue that isn't empty.
+     */
+    public void pop() {
+        this.head.setRelease(this.head.get() + 1);
+    }
+}
@@ -0,0 +1,53 @@
+package input;
+
+import game.Game;
+import game.Paddle;
+import geometry.Ball;
+
+import java.util.List;
+
+/**
+ * Simple AI input source that moves the paddle under the lowest ball that is falling.
+ * @author Yuval Anteby
+ */
+public class FollowBallInput implements InputSource {
+    private final Game game;
+
+    /**
+     * Constructor for the class.
+     * @param game - game to read the paddle and balls from.
+     */
+    public FollowBallInput(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public int poll() {
+        Paddle paddle = this.game.getPaddle();
+        List<Ball> balls = this.game.getBalls();
+        if (paddle == null || balls.isEmpty()) {
+            return NONE;
+        }
+        //Chase the falling ball that is the closest to the bottom.
+        Ball target = null;
+        for (Ball ball : balls) {
+            if (!ball.isRemoved() && ball.getDy() > 0
+                    && (target == null || ball.getY() > target.getY())) {
+                target = ball;
+            }
+        }
+        if (target == null) {
+            return NONE;
+        }
+        double paddleX = paddle.getCollisionRectangle().getUpperLeft().getX();
+        double paddleCenter = paddleX + paddle.getCollisionRectangle().getWidth() / 2;
+        double halfStep = paddle.getSpeed() / 2.0;
+        if (target.getX() < paddleCenter - halfStep) {
+            return LEFT;
+        }
+        if (target.getX() > paddleCenter + halfStep) {
+            return RIGHT;
+        }
+        return NONE;
+    }
+}
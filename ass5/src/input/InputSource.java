@@ -0,0 +1,19 @@
+package input;
+
+/**
+ * Interface for anything that controls the paddle (E.G: the keyboard, a script or a simple AI).
+ * The state of the commands is read once per tick as a bitmask.
+ * @author Yuval Anteby
+ */
+public interface InputSource {
+    /**
+     * Flags of the commands, a tick can have several of them at once.
+     */
+    int NONE = 0, LEFT = 1, RIGHT = 2, EXIT = 4;
+
+    /**
+     * Read the commands that are active in the current tick.
+     * @return - bitmask made of {@link #LEFT}, {@link #RIGHT} and {@link #EXIT}.
+     */
+    int poll();
+}
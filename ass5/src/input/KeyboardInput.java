@@ -0,0 +1,36 @@
+package input;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * Input source reading the arrow keys, A/D keys and enter key from the GUI's keyboard.
+ * @author Yuval Anteby
+ */
+public class KeyboardInput implements InputSource {
+    private final KeyboardSensor keyboard;
+
+    /**
+     * Constructor for the class.
+     * @param keyboard - keyboard sensor of the GUI.
+     */
+    public KeyboardInput(KeyboardSensor keyboard) {
+        this.keyboard = keyboard;
+    }
+
+    @Override
+    public int poll() {
+        int commands = NONE;
+        if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY) || this.keyboard.isPressed("a")
+                || this.keyboard.isPressed("A")) {
+            commands |= LEFT;
+        }
+        if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY) || this.keyboard.isPressed("d")
+                || this.keyboard.isPressed("D")) {
+            commands |= RIGHT;
+        }
+        if (this.keyboard.isPressed(KeyboardSensor.ENTER_KEY)) {
+            commands |= EXIT;
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,36 @@
+package input;
+
+import replay.ReplayWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Input source that passes on the commands of another source and records them into a replay log.
+ * @author Yuval Anteby
+ */
+public class RecordingInput implements InputSource {
+    private final InputSource source;
+    private final ReplayWriter writer;
+
+    /**
+     * Constructor for the class.
+     * @param source - source of the commands (E.G: the keyboard).
+     * @param writer - replay log the commands are recorded to.
+     */
+    public RecordingInput(InputSource source, ReplayWriter writer) {
+        this.source = source;
+        this.writer = writer;
+    }
+
+    @Override
+    public int poll() {
+        int commands = this.source.poll();
+        try {
+            this.writer.record(commands);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record the input", e);
+        }
+        return commands;
+    }
+}
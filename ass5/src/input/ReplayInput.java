@@ -0,0 +1,38 @@
+package input;
+
+import replay.ReplayLog;
+
+/**
+ * Input source that plays the commands recorded in a replay log, one tick per poll.
+ * Once the recording ends no commands are given.
+ * @author Yuval Anteby
+ */
+public class ReplayInput implements InputSource {
+    private final ReplayLog log;
+    private long tick;
+    private int run;
+
+    /**
+     * Constructor for the class.
+     * @param log       - recorded game.
+     * @param fromTick  - tick of the first poll (E.G: the tick of the snapshot the replay starts from).
+     */
+    public ReplayInput(ReplayLog log, long fromTick) {
+        if (fromTick < 0) {
+            throw new IllegalArgumentException("Tick can't be negative");
+        }
+        this.log = log;
+        this.tick = fromTick;
+        this.run = log.runAt(fromTick);
+    }
+
+    @Override
+    public int poll() {
+        //Runs are visited in order, so moving to the next one is enough.
+        while (this.run < this.log.getRunCount() && this.log.getRunEnd(this.run) <= this.tick) {
+            this.run++;
+        }
+        this.tick++;
+        return this.run < this.log.getRunCount() ? this.log.getRunCommands(this.run) : NONE;
+    }
+}
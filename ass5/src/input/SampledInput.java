@@ -0,0 +1,113 @@
+package input;
+
+import metrics.GameMetrics;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Input source that samples another source on a thread of its own and passes the samples to the game's thread
+ * through a {@link CommandQueue}, so the game's thread never calls the other source (E.G: the keyboard, whose key
+ * set is synchronized).
+ * A poll returns every command that was sampled since the previous poll, so a key pressed and released between two
+ * ticks isn't lost, and repeats the last sample if nothing new was sampled. The time from the sample that changed the
+ * commands to the poll that read it is recorded as the input latency.
+ * @author Yuval Anteby
+ */
+public class SampledInput implements InputSource, Runnable {
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final InputSource source;
+    private final long periodNanos;
+    private final CommandQueue queue = new CommandQueue(QUEUE_CAPACITY);
+    private volatile boolean running;
+    private Thread thread;
+    //Commands that didn't fit in the full queue, only used by the sampling thread.
+    private int carried;
+    //Last sample read by the game's thread.
+    private int current;
+    private GameMetrics metrics;
+
+    /**
+     * Constructor for the class, the sampling starts with {@link #start()}.
+     * @param source           - source to be sampled, only called from the sampling thread.
+     * @param samplesPerSecond - rate of the sampling, must be positive.
+     */
+    public SampledInput(InputSource source, int samplesPerSecond) {
+        if (samplesPerSecond <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive");
+        }
+        this.source = source;
+        this.periodNanos = 1_000_000_000L / samplesPerSecond;
+    }
+
+    /**
+     * Set where the input latency is recorded.
+     * @param newMetrics - metrics of the game, null to stop measuring the latency.
+     */
+    public void setMetrics(GameMetrics newMetrics) {
+        this.metrics = newMetrics;
+    }
+
+    /**
+     * Start sampling on a daemon thread.
+     */
+    public void start() {
+        if (this.thread != null) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread(this, "input-sampler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stop sampling and wait for the sampling thread to end.
+     */
+    public void stop() {
+        this.running = false;
+        if (this.thread == null) {
+            return;
+        }
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.thread = null;
+    }
+
+    @Override
+    public void run() {
+        while (this.running) {
+            int commands = this.source.poll() | this.carried;
+            this.carried = this.queue.offer(commands, System.nanoTime()) ? NONE : commands;
+            LockSupport.parkNanos(this.periodNanos);
+        }
+    }
+
+    @Override
+    public int poll() {
+        if (this.queue.isEmpty()) {
+            return this.current;
+        }
+        int commands = NONE;
+        long changedAt = 0;
+        boolean changed = false;
+        while (!this.queue.isEmpty()) {
+            int sample = this.queue.peekCommands();
+            if (!changed && sample != this.current) {
+                changed = true;
+                changedAt = this.queue.peekStamp();
+            }
+            commands |= sample;
+            this.current = sample;
+            this.queue.pop();
+        }
+        if (changed && this.metrics != null) {
+            this.metrics.recordInputLatency(System.nanoTime() - changedAt);
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,37 @@
+package input;
+
+/**
+ * Input source that replays a fixed list of commands, one entry per tick.
+ * Once the script ends the last entry is repeated, or the script starts over if it's set to loop.
+ * @author Yuval Anteby
+ */
+public class ScriptedInput implements InputSource {
+    private final int[] script;
+    private final boolean loop;
+    private int position;
+
+    /**
+     * Constructor for the class.
+     * @param script - commands for every tick, made of {@link InputSource} flags.
+     * @param loop   - true to start over when the script ends, false to keep the last commands.
+     */
+    public ScriptedInput(int[] script, boolean loop) {
+        if (script == null || script.length == 0) {
+            throw new IllegalArgumentException("Script must have at least one entry");
+        }
+        this.script = script.clone();
+        this.loop = loop;
+        this.position = 0;
+    }
+
+    @Override
+    public int poll() {
+        int commands = this.script[this.position];
+        if (this.position < this.script.length - 1) {
+            this.position++;
+        } else if (this.loop) {
+            this.position = 0;
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,148 @@
+package level;
+
+import graphics.Palette;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class to read levels out of a binary level pack (see {@link LevelFormat}).
+ * The pack is memory mapped, and the blocks of a level are read straight out of the mapping and passed to a sink one
+ * by one, so loading a level doesn't create any intermediate list. The reader only uses absolute reads, so several
+ * threads can load levels out of the same reader at once.
+ * @author Yuval Anteby
+ */
+public class BinaryLevelReader implements LevelProvider {
+    private final ByteBuffer buffer;
+    private final int levelCount;
+
+    /**
+     * Constructor for a reader over a buffer holding a whole level pack.
+     * @param buffer - content of the pack, from its first byte to its last.
+     */
+    public BinaryLevelReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < LevelFormat.HEADER_BYTES || buffer.getInt(0) != LevelFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a level pack");
+        }
+        int version = buffer.getInt(4);
+        if (version != LevelFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported level pack version " + version);
+        }
+        this.levelCount = buffer.getInt(8);
+        if (this.levelCount < 0 || (long) this.levelCount * Long.BYTES > buffer.limit() - LevelFormat.HEADER_BYTES) {
+            throw new IllegalArgumentException("Corrupted level pack: bad amount of levels " + this.levelCount);
+        }
+    }
+
+    /**
+     * Memory map a level pack file. The file is only read, and the mapping stays valid after the channel is closed.
+     * @param path - file of the level pack.
+     * @return - reader over the mapped file.
+     * @throws IOException - if the file can't be opened or mapped.
+     */
+    public static BinaryLevelReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryLevelReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public int getLevelCount() {
+        return this.levelCount;
+    }
+
+    /**
+     * Getter for the name of a level.
+     * @param level - index of the level in the pack.
+     * @return - name of the level.
+     */
+    public String getName(int level) {
+        int offset = levelOffset(level);
+        byte[] name = new byte[nameLength(offset)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = this.buffer.get(offset + Integer.BYTES + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the amount of blocks in a level without reading them.
+     * @param level - index of the level in the pack.
+     * @return - amount of blocks.
+     */
+    public int getBlockCount(int level) {
+        int offset = levelOffset(level);
+        return blockCount(offset + Integer.BYTES + nameLength(offset));
+    }
+
+    @Override
+    public int load(int level, LevelSink sink) {
+        int offset = levelOffset(level);
+        offset += Integer.BYTES + nameLength(offset);
+        int blocks = blockCount(offset);
+        int record = offset + Integer.BYTES;
+        //Blocks are usually written in rows of the same color, so the color is only looked up when it changes.
+        Color color = null;
+        for (int i = 0; i < blocks; i++) {
+            int argb = this.buffer.getInt(record + 16);
+            if (color == null || color.getRGB() != argb) {
+                color = Palette.colorOf(argb);
+            }
+            int hitPoints = this.buffer.get(record + 20);
+            int flags = this.buffer.get(record + 21);
+            LevelSink.checkBlock(hitPoints, flags);
+            sink.addBlock(this.buffer.getFloat(record), this.buffer.getFloat(record + 4),
+                    this.buffer.getFloat(record + 8), this.buffer.getFloat(record + 12), color, hitPoints, flags);
+            record += LevelFormat.BLOCK_BYTES;
+        }
+        return blocks;
+    }
+
+    /**
+     * Find where a level starts in the pack.
+     * @param level - index of the level.
+     * @return - offset of the level.
+     */
+    private int levelOffset(int level) {
+        if (level < 0 || level >= this.levelCount) {
+            throw new IllegalArgumentException("No level " + level + " in a pack of " + this.levelCount + " levels");
+        }
+        long offset = this.buffer.getLong(LevelFormat.HEADER_BYTES + level * Long.BYTES);
+        if (offset < 0 || offset > this.buffer.limit() - 2L * Integer.BYTES) {
+            throw new IllegalArgumentException("Corrupted level pack: bad offset of level " + level);
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Read the length of a level's name.
+     * @param offset - offset of the level.
+     * @return - length of the name in bytes.
+     */
+    private int nameLength(int offset) {
+        int length = this.buffer.getInt(offset);
+        if (length < 0 || length > this.buffer.limit() - offset - 2L * Integer.BYTES) {
+            throw new IllegalArgumentException("Corrupted level pack: bad name length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Read the amount of blocks of a level and check that all of them are inside the pack.
+     * @param offset - offset of the amount of blocks.
+     * @return - amount of blocks.
+     */
+    private int blockCount(int offset) {
+        int blocks = this.buffer.getInt(offset);
+        if (blocks < 0 || (long) blocks * LevelFormat.BLOCK_BYTES > this.buffer.limit() - offset - Integer.BYTES) {
+            throw new IllegalArgumentException("Corrupted level pack: bad amount of blocks " + blocks);
+        }
+        return blocks;
+    }
+}
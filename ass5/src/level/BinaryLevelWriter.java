@@ -0,0 +1,71 @@
+package level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Class to write levels into a binary level pack (see {@link LevelFormat}).
+ * @author Yuval Anteby
+ */
+public final class BinaryLevelWriter {
+
+    /**
+     * Hidden constructor, the class only has static functions.
+     */
+    private BinaryLevelWriter() {
+    }
+
+    /**
+     * Write levels into a level pack file, replacing the file if it exists.
+     * @param path   - file to be written.
+     * @param levels - levels of the pack, in order.
+     * @throws IOException - if the file can't be written.
+     */
+    public static void write(Path path, List<Level> levels) throws IOException {
+        ByteBuffer buffer = encode(levels);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Encode levels into the content of a level pack.
+     * @param levels - levels of the pack, in order.
+     * @return - buffer holding the pack, ready to be read.
+     */
+    public static ByteBuffer encode(List<Level> levels) {
+        byte[][] names = new byte[levels.size()][];
+        long size = LevelFormat.HEADER_BYTES + (long) levels.size() * Long.BYTES;
+        for (int i = 0; i < levels.size(); i++) {
+            names[i] = levels.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            size += 2L * Integer.BYTES + names[i].length + (long) levels.get(i).size() * LevelFormat.BLOCK_BYTES;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Level pack is too big");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(LevelFormat.MAGIC).putInt(LevelFormat.VERSION).putInt(levels.size());
+        //Leave room for the offsets table, it's filled while the levels are written.
+        buffer.position(buffer.position() + levels.size() * Long.BYTES);
+        for (int i = 0; i < levels.size(); i++) {
+            Level level = levels.get(i);
+            buffer.putLong(LevelFormat.HEADER_BYTES + i * Long.BYTES, buffer.position());
+            buffer.putInt(names[i].length).put(names[i]).putInt(level.size());
+            for (int j = 0; j < level.size(); j++) {
+                buffer.putFloat(level.getX(j)).putFloat(level.getY(j)).putFloat(level.getWidth(j))
+                        .putFloat(level.getHeight(j)).putInt(level.getColor(j))
+                        .put((byte) level.getHitPoints(j)).put((byte) level.getFlags(j));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,70 @@
+package level;
+
+import util.Constants;
+import util.RandomSource;
+
+import java.awt.Color;
+
+/**
+ * Provider of the default levels: rows of blocks on the top part of the GUI, every row shorter by one block than the
+ * row above it, aligned to the right. Every row gets a random color.
+ * The colors are drawn from the given random source in the order the levels are loaded, so the random source must
+ * not be used by anything else while a level loads.
+ * @author Yuval Anteby
+ */
+public class GeneratedLevelProvider implements LevelProvider {
+    private final int levels;
+    private final int rows;
+    private final RandomSource random;
+
+    /**
+     * Constructor for the provider.
+     * @param levels - amount of levels, must be positive.
+     * @param rows   - amount of rows of blocks in every level, must be positive.
+     * @param random - source of the blocks' colors.
+     */
+    public GeneratedLevelProvider(int levels, int rows, RandomSource random) {
+        if (levels <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Levels and rows amounts must be positive");
+        }
+        this.levels = levels;
+        this.rows = rows;
+        this.random = random;
+    }
+
+    @Override
+    public int getLevelCount() {
+        return this.levels;
+    }
+
+    @Override
+    public int load(int level, LevelSink sink) {
+        if (level < 0 || level >= this.levels) {
+            throw new IllegalArgumentException("No level " + level + " out of " + this.levels + " levels");
+        }
+        int blocks = 0;
+        //Generate several rows and columns of random colored blocks.
+        for (int j = 0; j < this.rows; j++) {
+            //generate row of blocks.
+            Color color = randomColor();
+            for (int i = 0; i < this.rows * 2 - j; i++) {
+                double xValue = Constants.GUI_WIDTH - ((i + 1) * Constants.BLOCK_WIDTH + Constants.BOUNDS_WIDTH);
+                double yValue = (j + 3) * Constants.BLOCK_HEIGHT + Constants.BOUNDS_HEIGHT + 1;
+                sink.addBlock(xValue, yValue, Constants.BLOCK_WIDTH, Constants.BLOCK_HEIGHT, color);
+                blocks++;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Create a random color for a row of blocks.
+     * @return - random color.
+     */
+    private Color randomColor() {
+        int red = this.random.nextInt(256);
+        int green = this.random.nextInt(256);
+        int blue = this.random.nextInt(256);
+        return new Color(red, green, blue);
+    }
+}
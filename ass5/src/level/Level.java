@@ -0,0 +1,157 @@
+package level;
+
+import graphics.Palette;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Class to hold the blocks of a level in memory, used while authoring or converting levels.
+ * The blocks are kept in parallel arrays in the order they were added.
+ * @author Yuval Anteby
+ */
+public class Level implements LevelSink {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final String name;
+    private float[] x = new float[DEFAULT_CAPACITY];
+    private float[] y = new float[DEFAULT_CAPACITY];
+    private float[] width = new float[DEFAULT_CAPACITY];
+    private float[] height = new float[DEFAULT_CAPACITY];
+    private int[] colors = new int[DEFAULT_CAPACITY];
+    private byte[] hitPoints = new byte[DEFAULT_CAPACITY];
+    private byte[] flags = new byte[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * Constructor for an empty level.
+     * @param name - name of the level.
+     */
+    public Level(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Level name can't be null");
+        }
+        this.name = name;
+    }
+
+    @Override
+    public void addBlock(double blockX, double blockY, double blockWidth, double blockHeight, Color color,
+                         int blockHitPoints, int blockFlags) {
+        LevelSink.checkBlock(blockHitPoints, blockFlags);
+        if (this.size == this.x.length) {
+            grow();
+        }
+        this.x[this.size] = (float) blockX;
+        this.y[this.size] = (float) blockY;
+        this.width[this.size] = (float) blockWidth;
+        this.height[this.size] = (float) blockHeight;
+        this.colors[this.size] = color.getRGB();
+        this.hitPoints[this.size] = (byte) blockHitPoints;
+        this.flags[this.size] = (byte) blockFlags;
+        this.size++;
+    }
+
+    /**
+     * Getter for the name of the level.
+     * @return - name of the level.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the amount of blocks in the level.
+     * @return - amount of blocks.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the x value of a block's top left corner.
+     * @param i - index of the block.
+     * @return - x value of the block.
+     */
+    public float getX(int i) {
+        return this.x[i];
+    }
+
+    /**
+     * Getter for the y value of a block's top left corner.
+     * @param i - index of the block.
+     * @return - y value of the block.
+     */
+    public float getY(int i) {
+        return this.y[i];
+    }
+
+    /**
+     * Getter for the width of a block.
+     * @param i - index of the block.
+     * @return - width of the block.
+     */
+    public float getWidth(int i) {
+        return this.width[i];
+    }
+
+    /**
+     * Getter for the height of a block.
+     * @param i - index of the block.
+     * @return - height of the block.
+     */
+    public float getHeight(int i) {
+        return this.height[i];
+    }
+
+    /**
+     * Getter for the color of a block.
+     * @param i - index of the block.
+     * @return - color of the block as an ARGB value.
+     */
+    public int getColor(int i) {
+        return this.colors[i];
+    }
+
+    /**
+     * Getter for the amount of hits it takes to break a block.
+     * @param i - index of the block.
+     * @return - hit points of the block.
+     */
+    public int getHitPoints(int i) {
+        return this.hitPoints[i];
+    }
+
+    /**
+     * Getter for the flags of a block.
+     * @param i - index of the block.
+     * @return - bitmask of {@link LevelSink#SOLID} and {@link LevelSink#POWER_UP}.
+     */
+    public int getFlags(int i) {
+        return this.flags[i];
+    }
+
+    /**
+     * Pass every block of the level to a sink, in the order they were added.
+     * @param sink - destination of the blocks.
+     */
+    public void replay(LevelSink sink) {
+        for (int i = 0; i < this.size; i++) {
+            sink.addBlock(this.x[i], this.y[i], this.width[i], this.height[i], Palette.colorOf(this.colors[i]),
+                    this.hitPoints[i], this.flags[i]);
+        }
+    }
+
+    /**
+     * Double the capacity of the arrays.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.width = Arrays.copyOf(this.width, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+        this.colors = Arrays.copyOf(this.colors, capacity);
+        this.hitPoints = Arrays.copyOf(this.hitPoints, capacity);
+        this.flags = Arrays.copyOf(this.flags, capacity);
+    }
+}
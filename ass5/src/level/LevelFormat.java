@@ -0,0 +1,34 @@
+package level;
+
+/**
+ * Constants of the binary level format.
+ * A file is a level pack: a header made of {@link #MAGIC}, {@link #VERSION} and the amount of levels, followed by the
+ * offset of every level in the file (8 bytes each). A level starts with the length of its UTF-8 name, the name and
+ * the amount of blocks, followed by a record of {@link #BLOCK_BYTES} bytes per block: x, y, width and height as floats,
+ * the color as an ARGB int, the hit points and the flags as a byte each. Every value is big endian.
+ * @author Yuval Anteby
+ */
+public final class LevelFormat {
+    /**
+     * First bytes of every level pack ("ARKL").
+     */
+    public static final int MAGIC = 0x41524B4C;
+    /**
+     * Version of the format written by {@link BinaryLevelWriter}.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Size of the pack's header before the offsets table.
+     */
+    public static final int HEADER_BYTES = 12;
+    /**
+     * Size of a single block record.
+     */
+    public static final int BLOCK_BYTES = 22;
+
+    /**
+     * Hidden constructor, the class only holds constants.
+     */
+    private LevelFormat() {
+    }
+}
@@ -0,0 +1,40 @@
+package level;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface for a source of levels, the game asks it for the blocks of every level it plays.
+ * A provider may be asked to load a level on a background thread while the game plays the previous one, but never
+ * loads two levels at once.
+ * @author Yuval Anteby
+ */
+public interface LevelProvider {
+
+    /**
+     * Get the amount of levels the provider has.
+     * @return - amount of levels.
+     */
+    int getLevelCount();
+
+    /**
+     * Pass every block of a level to a sink.
+     * @param level - index of the level.
+     * @param sink  - destination of the blocks.
+     * @return - amount of blocks in the level.
+     */
+    int load(int level, LevelSink sink);
+
+    /**
+     * Open a level file, a ".txt" file is read as the text format and any other file is mapped as a binary level pack.
+     * @param path - level file.
+     * @return - provider of the file's levels.
+     * @throws IOException - if the file can't be read.
+     */
+    static LevelProvider open(Path path) throws IOException {
+        if (path.toString().endsWith(".txt")) {
+            return new LevelSet(TextLevelReader.read(path));
+        }
+        return BinaryLevelReader.open(path);
+    }
+}
@@ -0,0 +1,34 @@
+package level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provider of levels held in memory (E.G: levels read from the text format).
+ * @author Yuval Anteby
+ */
+public class LevelSet implements LevelProvider {
+    private final List<Level> levels;
+
+    /**
+     * Constructor for the set.
+     * @param levels - levels of the set, in order. The list is copied.
+     */
+    public LevelSet(List<Level> levels) {
+        this.levels = new ArrayList<>(levels);
+    }
+
+    @Override
+    public int getLevelCount() {
+        return this.levels.size();
+    }
+
+    @Override
+    public int load(int level, LevelSink sink) {
+        if (level < 0 || level >= this.levels.size()) {
+            throw new IllegalArgumentException("No level " + level + " in a set of " + this.levels.size() + " levels");
+        }
+        this.levels.get(level).replay(sink);
+        return this.levels.get(level).size();
+    }
+}
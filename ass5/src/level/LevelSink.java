@@ -0,0 +1,64 @@
+package level;
+
+import java.awt.Color;
+
+/**
+ * Interface for the destination of the blocks of a level, the level readers pass every block to the sink as soon as
+ * it's read so a level never has to be held in memory.
+ * A block breaks after a number of hits (its hit points), and may have flags: a {@link #SOLID} block can't be broken
+ * at all and a {@link #POWER_UP} block drops a power up when it breaks.
+ * @author Yuval Anteby
+ */
+public interface LevelSink {
+    /**
+     * Flags of a block: none, can't be broken, drops a power up when broken.
+     */
+    int NO_FLAGS = 0, SOLID = 1, POWER_UP = 2;
+    /**
+     * Every flag a block may have.
+     */
+    int ALL_FLAGS = SOLID | POWER_UP;
+    /**
+     * Largest amount of hit points of a block, they're stored in a single byte.
+     */
+    int MAX_HIT_POINTS = Byte.MAX_VALUE;
+
+    /**
+     * Receive a block of the level that breaks on its first hit and has no flags.
+     * @param x      - x value of the top left corner of the block.
+     * @param y      - y value of the top left corner of the block.
+     * @param width  - width of the block.
+     * @param height - height of the block.
+     * @param color  - color of the block.
+     */
+    default void addBlock(double x, double y, double width, double height, Color color) {
+        addBlock(x, y, width, height, color, 1, NO_FLAGS);
+    }
+
+    /**
+     * Receive a block of the level.
+     * @param x         - x value of the top left corner of the block.
+     * @param y         - y value of the top left corner of the block.
+     * @param width     - width of the block.
+     * @param height    - height of the block.
+     * @param color     - color of the block.
+     * @param hitPoints - amount of hits it takes to break the block, between 1 and {@link #MAX_HIT_POINTS}.
+     * @param flags     - bitmask of {@link #SOLID} and {@link #POWER_UP}.
+     */
+    void addBlock(double x, double y, double width, double height, Color color, int hitPoints, int flags);
+
+    /**
+     * Make sure the hit points and flags of a block are valid.
+     * @param hitPoints - amount of hits it takes to break the block.
+     * @param flags     - flags of the block.
+     */
+    static void checkBlock(int hitPoints, int flags) {
+        if (hitPoints < 1 || hitPoints > MAX_HIT_POINTS) {
+            throw new IllegalArgumentException("Hit points must be between 1 and " + MAX_HIT_POINTS + ", got "
+                    + hitPoints);
+        }
+        if ((flags & ~ALL_FLAGS) != 0) {
+            throw new IllegalArgumentException("Unknown block flags " + flags);
+        }
+    }
+}
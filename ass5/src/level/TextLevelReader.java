@@ -0,0 +1,125 @@
+package level;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class to read levels written in the text format, meant for authoring levels by hand.
+ * Every line holds a single command, empty lines and lines starting with '#' are ignored:
+ * "level name" starts a new level, "block x y width height color" adds a block and
+ * "row x y count width height color" adds a row of blocks next to each other from left to right.
+ * Colors are written as "#RRGGBB" or "#AARRGGBB". A block or a row may end with options: the amount of hits it takes
+ * to break the blocks (1 by default), "solid" for blocks that can't be broken and "powerup" for blocks that drop a
+ * power up, E.G: "block 100 100 50 20 #FF0000 3 powerup".
+ * @author Yuval Anteby
+ */
+public final class TextLevelReader {
+
+    /**
+     * Hidden constructor, the class only has static functions.
+     */
+    private TextLevelReader() {
+    }
+
+    /**
+     * Read every level of a text file.
+     * @param path - text file to be read.
+     * @return - levels of the file, in order.
+     * @throws IOException - if the file can't be read.
+     */
+    public static List<Level> read(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Read every level out of a reader.
+     * @param reader - reader of the text.
+     * @return - levels of the text, in order.
+     * @throws IOException - if the text can't be read.
+     */
+    public static List<Level> read(BufferedReader reader) throws IOException {
+        List<Level> levels = new ArrayList<>();
+        Level current = null;
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts[0].equals("level")) {
+                current = new Level(line.substring(parts[0].length()).trim());
+                levels.add(current);
+                continue;
+            }
+            if (current == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": blocks must follow a level line");
+            }
+            try {
+                if (parts[0].equals("block") && parts.length >= 6) {
+                    int[] options = parseOptions(parts, 6);
+                    current.addBlock(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                            Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), parseColor(parts[5]),
+                            options[0], options[1]);
+                } else if (parts[0].equals("row") && parts.length >= 7) {
+                    double x = Double.parseDouble(parts[1]), y = Double.parseDouble(parts[2]);
+                    int count = Integer.parseInt(parts[3]);
+                    double width = Double.parseDouble(parts[4]), height = Double.parseDouble(parts[5]);
+                    Color color = parseColor(parts[6]);
+                    int[] options = parseOptions(parts, 7);
+                    for (int i = 0; i < count; i++) {
+                        current.addBlock(x + i * width, y, width, height, color, options[0], options[1]);
+                    }
+                } else {
+                    throw new IllegalArgumentException("unknown command \"" + line + "\"");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Parse the options at the end of a block or a row line.
+     * @param parts - words of the line.
+     * @param from  - index of the first option.
+     * @return - array of the hit points and the flags of the blocks.
+     */
+    private static int[] parseOptions(String[] parts, int from) {
+        int hitPoints = 1, flags = LevelSink.NO_FLAGS;
+        for (int i = from; i < parts.length; i++) {
+            if (parts[i].equals("solid")) {
+                flags |= LevelSink.SOLID;
+            } else if (parts[i].equals("powerup")) {
+                flags |= LevelSink.POWER_UP;
+            } else {
+                hitPoints = Integer.parseInt(parts[i]);
+            }
+        }
+        LevelSink.checkBlock(hitPoints, flags);
+        return new int[] {hitPoints, flags};
+    }
+
+    /**
+     * Parse a color written as "#RRGGBB" or "#AARRGGBB".
+     * @param text - text of the color.
+     * @return - the color.
+     */
+    private static Color parseColor(String text) {
+        if (!text.startsWith("#") || (text.length() != 7 && text.length() != 9)) {
+            throw new IllegalArgumentException("bad color \"" + text + "\"");
+        }
+        int value = (int) Long.parseLong(text.substring(1), 16);
+        return text.length() == 7 ? new Color(value) : new Color(value, true);
+    }
+}
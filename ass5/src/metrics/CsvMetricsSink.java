@@ -0,0 +1,60 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sink that writes a summary of every histogram to a CSV file when the game ends.
+ * @author Yuval Anteby
+ */
+public class CsvMetricsSink implements MetricsSink {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Path path;
+
+    /**
+     * Constructor for the sink.
+     * @param path - file to be written, replaced if it exists.
+     */
+    public CsvMetricsSink(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void gameStarted(GameMetrics metrics) {
+        //Nothing is written until the game ends.
+    }
+
+    @Override
+    public void gameEnded(GameMetrics metrics) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(this.path, StandardCharsets.UTF_8))) {
+            out.println("metric,count,min,mean,p50,p90,p99,p99.9,max");
+            writeRow(out, "update_nanos", metrics.getUpdateNanos());
+            writeRow(out, "render_nanos", metrics.getRenderNanos());
+            writeRow(out, "query_nanos", metrics.getQueryNanos());
+            writeRow(out, "query_candidates", metrics.getQueryCandidates());
+            writeRow(out, "input_latency_nanos", metrics.getInputLatencyNanos());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the metrics to " + this.path, e);
+        }
+    }
+
+    /**
+     * Write a single histogram as a row.
+     * @param out       - writer of the file.
+     * @param name      - name of the metric.
+     * @param histogram - values of the metric.
+     */
+    private static void writeRow(PrintWriter out, String name, Histogram histogram) {
+        out.print(name + "," + histogram.getCount() + "," + histogram.getMin() + ","
+                + String.format("%.1f", histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            out.print("," + histogram.getValueAtPercentile(percentile));
+        }
+        out.println("," + histogram.getMax());
+    }
+}
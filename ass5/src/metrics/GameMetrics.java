@@ -0,0 +1,89 @@
+package metrics;
+
+/**
+ * Class to collect the timing of a single game's loop.
+ * Holds histograms for the time of every update (a tick of every sprite), every render (drawing a frame) and every
+ * collision query, for the amount of collidables tested by every query and for the latency of the sampled input.
+ * @author Yuval Anteby
+ */
+public class GameMetrics {
+    private final Histogram updateNanos = new Histogram();
+    private final Histogram renderNanos = new Histogram();
+    private final Histogram queryNanos = new Histogram();
+    private final Histogram queryCandidates = new Histogram();
+    private final Histogram inputLatencyNanos = new Histogram();
+
+    /**
+     * Record the time it took to update every sprite for a single tick.
+     * @param nanos - duration in nanoseconds.
+     */
+    public void recordUpdate(long nanos) {
+        this.updateNanos.record(nanos);
+    }
+
+    /**
+     * Record the time it took to draw a single frame.
+     * @param nanos - duration in nanoseconds.
+     */
+    public void recordRender(long nanos) {
+        this.renderNanos.record(nanos);
+    }
+
+    /**
+     * Record a single collision query.
+     * @param nanos      - duration in nanoseconds.
+     * @param candidates - amount of collidables tested by the query.
+     */
+    public void recordQuery(long nanos, int candidates) {
+        this.queryNanos.record(nanos);
+        this.queryCandidates.record(candidates);
+    }
+
+    /**
+     * Record the time from sampling a change of the input to the tick that read it.
+     * @param nanos - latency in nanoseconds.
+     */
+    public void recordInputLatency(long nanos) {
+        this.inputLatencyNanos.record(nanos);
+    }
+
+    /**
+     * Getter for the update times.
+     * @return - histogram of update times in nanoseconds.
+     */
+    public Histogram getUpdateNanos() {
+        return this.updateNanos;
+    }
+
+    /**
+     * Getter for the render times.
+     * @return - histogram of render times in nanoseconds.
+     */
+    public Histogram getRenderNanos() {
+        return this.renderNanos;
+    }
+
+    /**
+     * Getter for the collision query times.
+     * @return - histogram of query times in nanoseconds.
+     */
+    public Histogram getQueryNanos() {
+        return this.queryNanos;
+    }
+
+    /**
+     * Getter for the amount of collidables tested per query.
+     * @return - histogram of the amount of candidates per query.
+     */
+    public Histogram getQueryCandidates() {
+        return this.queryCandidates;
+    }
+
+    /**
+     * Getter for the input latencies.
+     * @return - histogram of input latencies in nanoseconds.
+     */
+    public Histogram getInputLatencyNanos() {
+        return this.inputLatencyNanos;
+    }
+}
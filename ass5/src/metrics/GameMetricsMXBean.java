@@ -0,0 +1,86 @@
+package metrics;
+
+/**
+ * Management interface of a running game's metrics, all the times are in nanoseconds.
+ * @author Yuval Anteby
+ */
+public interface GameMetricsMXBean {
+
+    /**
+     * Getter for the amount of updates (ticks) recorded.
+     * @return - amount of updates.
+     */
+    long getUpdateCount();
+
+    /**
+     * Getter for the average update time.
+     * @return - average update time.
+     */
+    double getUpdateMean();
+
+    /**
+     * Getter for the 99th percentile of the update time.
+     * @return - 99th percentile of the update time.
+     */
+    long getUpdateP99();
+
+    /**
+     * Getter for the amount of frames recorded.
+     * @return - amount of frames.
+     */
+    long getRenderCount();
+
+    /**
+     * Getter for the average render time.
+     * @return - average render time.
+     */
+    double getRenderMean();
+
+    /**
+     * Getter for the 99th percentile of the render time.
+     * @return - 99th percentile of the render time.
+     */
+    long getRenderP99();
+
+    /**
+     * Getter for the amount of collision queries recorded.
+     * @return - amount of queries.
+     */
+    long getQueryCount();
+
+    /**
+     * Getter for the average collision query time.
+     * @return - average query time.
+     */
+    double getQueryMean();
+
+    /**
+     * Getter for the 99th percentile of the collision query time.
+     * @return - 99th percentile of the query time.
+     */
+    long getQueryP99();
+
+    /**
+     * Getter for the average amount of collidables tested per query.
+     * @return - average amount of candidates.
+     */
+    double getCandidatesMean();
+
+    /**
+     * Getter for the highest amount of collidables tested by a single query.
+     * @return - highest amount of candidates.
+     */
+    long getCandidatesMax();
+
+    /**
+     * Getter for the average latency of the sampled input.
+     * @return - average input latency.
+     */
+    double getInputLatencyMean();
+
+    /**
+     * Getter for the 99th percentile of the latency of the sampled input.
+     * @return - 99th percentile of the input latency.
+     */
+    long getInputLatencyP99();
+}
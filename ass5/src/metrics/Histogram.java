@@ -0,0 +1,141 @@
+package metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values (E.G: durations in nanoseconds) with a fixed relative precision.
+ * Values are counted in log-linear buckets, like HdrHistogram: every power of two is split into 64 equal buckets, so
+ * a value is reported within about 1.5% of what was recorded. The buckets are allocated once, recording a value
+ * doesn't create any objects.
+ * The histogram is not thread safe, it should be written by a single thread.
+ * @author Yuval Anteby
+ */
+public class Histogram {
+    //Values below LINEAR_LIMIT get a bucket of their own, above it every power of two gets SUB_BUCKETS buckets.
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - 2 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    /**
+     * Default constructor, creates an empty histogram.
+     */
+    public Histogram() {
+        reset();
+    }
+
+    /**
+     * Count a value, negative values are counted as 0.
+     * @param value - value to be recorded.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        this.counts[bucketOf(v)]++;
+        this.count++;
+        this.sum += v;
+        if (v < this.min) {
+            this.min = v;
+        }
+        if (v > this.max) {
+            this.max = v;
+        }
+    }
+
+    /**
+     * Remove every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Getter for the amount of recorded values.
+     * @return - amount of values.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Getter for the lowest recorded value.
+     * @return - lowest value, 0 if the histogram is empty.
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Getter for the highest recorded value.
+     * @return - highest value, 0 if the histogram is empty.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Getter for the exact average of the recorded values.
+     * @return - average value, 0 if the histogram is empty.
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : this.sum / (double) this.count;
+    }
+
+    /**
+     * Find the value that a percentage of the recorded values are lower or equal to.
+     * @param percentile - percentage between 0 and 100 (E.G: 99 for the 99th percentile).
+     * @return - highest value of the bucket the percentile falls in, never above the highest recorded value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        double clamped = Math.max(0, Math.min(100, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100 * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= target) {
+                return Math.min(this.max, highestValueOf(i));
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Find the bucket of a value.
+     * @param value - non-negative value.
+     * @return - index of the bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Find the highest value counted by a bucket.
+     * @param bucket - index of the bucket.
+     * @return - highest value of the bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_LIMIT;
+        int shift = offset / SUB_BUCKETS + 1;
+        long subBucket = offset % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,130 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Sink that exposes the metrics of a running game as a JMX bean, so they can be watched with tools like JConsole.
+ * The values are read while the game writes them, so a reading might mix two consecutive ticks.
+ * @author Yuval Anteby
+ */
+public class JmxMetricsSink implements MetricsSink {
+    private static final String DOMAIN = "ass5:type=GameMetrics,name=";
+
+    private final String name;
+    private ObjectName objectName;
+
+    /**
+     * Constructor for the sink.
+     * @param name - name of the bean, must be unique among the games running in the same process.
+     */
+    public JmxMetricsSink(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void gameStarted(GameMetrics metrics) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            this.objectName = new ObjectName(DOMAIN + ObjectName.quote(this.name));
+            server.registerMBean(new Bean(metrics), this.objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register the metrics bean " + this.name, e);
+        }
+    }
+
+    @Override
+    public void gameEnded(GameMetrics metrics) {
+        if (this.objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister the metrics bean " + this.name, e);
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * Bean reading the histograms of a game.
+     */
+    private static final class Bean implements GameMetricsMXBean {
+        private final GameMetrics metrics;
+
+        /**
+         * Constructor for the bean.
+         * @param metrics - metrics of the game.
+         */
+        private Bean(GameMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public long getUpdateCount() {
+            return this.metrics.getUpdateNanos().getCount();
+        }
+
+        @Override
+        public double getUpdateMean() {
+            return this.metrics.getUpdateNanos().getMean();
+        }
+
+        @Override
+        public long getUpdateP99() {
+            return this.metrics.getUpdateNanos().getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getRenderCount() {
+            return this.metrics.getRenderNanos().getCount();
+        }
+
+        @Override
+        public double getRenderMean() {
+            return this.metrics.getRenderNanos().getMean();
+        }
+
+        @Override
+        public long getRenderP99() {
+            return this.metrics.getRenderNanos().getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getQueryCount() {
+            return this.metrics.getQueryNanos().getCount();
+        }
+
+        @Override
+        public double getQueryMean() {
+            return this.metrics.getQueryNanos().getMean();
+        }
+
+        @Override
+        public long getQueryP99() {
+            return this.metrics.getQueryNanos().getValueAtPercentile(99);
+        }
+
+        @Override
+        public double getCandidatesMean() {
+            return this.metrics.getQueryCandidates().getMean();
+        }
+
+        @Override
+        public long getCandidatesMax() {
+            return this.metrics.getQueryCandidates().getMax();
+        }
+
+        @Override
+        public double getInputLatencyMean() {
+            return this.metrics.getInputLatencyNanos().getMean();
+        }
+
+        @Override
+        public long getInputLatencyP99() {
+            return this.metrics.getInputLatencyNanos().getValueAtPercentile(99);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+/**
+ * Interface for the destinations of a game's metrics (E.G: a JMX bean or a file).
+ * @author Yuval Anteby
+ */
+public interface MetricsSink {
+
+    /**
+     * Notify the sink that a game started recording metrics.
+     * @param metrics - metrics of the game, updated while the game runs.
+     */
+    void gameStarted(GameMetrics metrics);
+
+    /**
+     * Notify the sink that the game ended, the metrics won't change anymore.
+     * @param metrics - final metrics of the game.
+     */
+    void gameEnded(GameMetrics metrics);
+}
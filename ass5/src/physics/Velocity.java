@@ -2,7 +2,7 @@ package physics;
 
 import geometry.Point;
 
-import java.util.Random;
+import util.RandomSource;
 
 /**
  * Class to represent velocity, Specifies the change in position on the `x` and the `y` axis.
@@ -97,10 +97,10 @@ public class Velocity {
     /**
      * Generate random velocity.
      * max vector speed will be capped, angle won't be towards the bottom.
+     * @param rnd - random source of the game.
      * @return - new random velocity.
      */
-    public static Velocity randomVelocity() {
-        Random rnd = new Random();
+    public static Velocity randomVelocity(RandomSource rnd) {
         double angle = 180 * rnd.nextDouble();
                 //360 * rnd.nextDouble();
         double speed = rnd.nextInt(5) + 4;
@@ -0,0 +1,265 @@
+package replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Class to hold the state of a game between two ticks, enough to continue the game from that tick.
+ * The level itself isn't stored: it's loaded again from the random state it was first loaded from, and only the
+ * hit points left to every brick are kept. The balls are the ones that are still in the game, in their order in the
+ * game.
+ * @author Yuval Anteby
+ */
+public class GameSnapshot {
+    private final long tick;
+    private final int levelIndex;
+    private final long levelState;
+    private final long nextLevelState;
+    private final int score;
+    private final double paddleX;
+    private final byte[] brickHitPoints;
+    private final double[] ballX;
+    private final double[] ballY;
+    private final double[] ballDx;
+    private final double[] ballDy;
+    private final int[] ballRadius;
+    private final int[] ballColor;
+
+    /**
+     * Constructor for a snapshot. The arrays are kept as they are, the balls' arrays must have the same length.
+     * @param tick           - amount of ticks the game ran.
+     * @param levelIndex     - index of the level being played.
+     * @param levelState     - state of the game's random source before the level was loaded.
+     * @param nextLevelState - state of the game's random source before the next level was loaded.
+     * @param score          - score of the player.
+     * @param paddleX        - x value of the paddle's left side.
+     * @param brickHitPoints - hit points left to every brick of the level (in load order), 0 if it was broken.
+     * @param ballX          - x values of the balls' centers.
+     * @param ballY          - y values of the balls' centers.
+     * @param ballDx         - x-axis velocities of the balls.
+     * @param ballDy         - y-axis velocities of the balls.
+     * @param ballRadius     - radiuses of the balls.
+     * @param ballColor      - ARGB colors of the balls.
+     */
+    public GameSnapshot(long tick, int levelIndex, long levelState, long nextLevelState, int score, double paddleX,
+                        byte[] brickHitPoints, double[] ballX, double[] ballY, double[] ballDx, double[] ballDy,
+                        int[] ballRadius, int[] ballColor) {
+        int balls = ballX.length;
+        if (ballY.length != balls || ballDx.length != balls || ballDy.length != balls || ballRadius.length != balls
+                || ballColor.length != balls) {
+            throw new IllegalArgumentException("Every ball must have a position, velocity, radius and color");
+        }
+        this.tick = tick;
+        this.levelIndex = levelIndex;
+        this.levelState = levelState;
+        this.nextLevelState = nextLevelState;
+        this.score = score;
+        this.paddleX = paddleX;
+        this.brickHitPoints = brickHitPoints;
+        this.ballX = ballX;
+        this.ballY = ballY;
+        this.ballDx = ballDx;
+        this.ballDy = ballDy;
+        this.ballRadius = ballRadius;
+        this.ballColor = ballColor;
+    }
+
+    /**
+     * Getter for the tick of the snapshot.
+     * @return - amount of ticks the game ran.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Getter for the index of the level being played.
+     * @return - index of the level.
+     */
+    public int getLevelIndex() {
+        return this.levelIndex;
+    }
+
+    /**
+     * Getter for the state of the random source before the level was loaded.
+     * @return - random state of the level.
+     */
+    public long getLevelState() {
+        return this.levelState;
+    }
+
+    /**
+     * Getter for the state of the random source before the next level was loaded.
+     * @return - random state of the next level.
+     */
+    public long getNextLevelState() {
+        return this.nextLevelState;
+    }
+
+    /**
+     * Getter for the score of the player.
+     * @return - score.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Getter for the position of the paddle.
+     * @return - x value of the paddle's left side.
+     */
+    public double getPaddleX() {
+        return this.paddleX;
+    }
+
+    /**
+     * Getter for the amount of bricks in the level, broken or not.
+     * @return - amount of bricks.
+     */
+    public int getBrickCount() {
+        return this.brickHitPoints.length;
+    }
+
+    /**
+     * Check if a brick of the level was broken.
+     * @param i - index of the brick in load order.
+     * @return - true if the brick was broken, otherwise false.
+     */
+    public boolean isBroken(int i) {
+        return this.brickHitPoints[i] == 0;
+    }
+
+    /**
+     * Getter for the amount of hits a brick of the level could still take.
+     * @param i - index of the brick in load order.
+     * @return - hit points left to the brick, 0 if it was broken.
+     */
+    public int getHitPoints(int i) {
+        return this.brickHitPoints[i];
+    }
+
+    /**
+     * Getter for the amount of balls in the game.
+     * @return - amount of balls.
+     */
+    public int getBallCount() {
+        return this.ballX.length;
+    }
+
+    /**
+     * Getter for the x value of a ball's center.
+     * @param i - index of the ball.
+     * @return - x value of the center.
+     */
+    public double getBallX(int i) {
+        return this.ballX[i];
+    }
+
+    /**
+     * Getter for the y value of a ball's center.
+     * @param i - index of the ball.
+     * @return - y value of the center.
+     */
+    public double getBallY(int i) {
+        return this.ballY[i];
+    }
+
+    /**
+     * Getter for the x-axis velocity of a ball.
+     * @param i - index of the ball.
+     * @return - x-axis velocity.
+     */
+    public double getBallDx(int i) {
+        return this.ballDx[i];
+    }
+
+    /**
+     * Getter for the y-axis velocity of a ball.
+     * @param i - index of the ball.
+     * @return - y-axis velocity.
+     */
+    public double getBallDy(int i) {
+        return this.ballDy[i];
+    }
+
+    /**
+     * Getter for the radius of a ball.
+     * @param i - index of the ball.
+     * @return - radius of the ball.
+     */
+    public int getBallRadius(int i) {
+        return this.ballRadius[i];
+    }
+
+    /**
+     * Getter for the color of a ball.
+     * @param i - index of the ball.
+     * @return - ARGB color of the ball.
+     */
+    public int getBallColor(int i) {
+        return this.ballColor[i];
+    }
+
+    /**
+     * Write the snapshot, the hit points of every brick take a single byte.
+     * @param out - output to write to.
+     * @throws IOException - if the output can't be written.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(this.tick);
+        out.writeInt(this.levelIndex);
+        out.writeLong(this.levelState);
+        out.writeLong(this.nextLevelState);
+        out.writeInt(this.score);
+        out.writeDouble(this.paddleX);
+        out.writeInt(this.brickHitPoints.length);
+        out.write(this.brickHitPoints);
+        out.writeInt(this.ballX.length);
+        for (int i = 0; i < this.ballX.length; i++) {
+            out.writeDouble(this.ballX[i]);
+            out.writeDouble(this.ballY[i]);
+            out.writeDouble(this.ballDx[i]);
+            out.writeDouble(this.ballDy[i]);
+            out.writeInt(this.ballRadius[i]);
+            out.writeInt(this.ballColor[i]);
+        }
+    }
+
+    /**
+     * Read a snapshot written by {@link #writeTo(DataOutput)}.
+     * @param in - input to read from.
+     * @return - the snapshot.
+     * @throws IOException - if the input can't be read.
+     */
+    public static GameSnapshot readFrom(DataInput in) throws IOException {
+        long tick = in.readLong();
+        int levelIndex = in.readInt();
+        long levelState = in.readLong();
+        long nextLevelState = in.readLong();
+        int score = in.readInt();
+        double paddleX = in.readDouble();
+        int bricks = in.readInt();
+        if (bricks < 0) {
+            throw new IllegalArgumentException("Corrupted snapshot, negative amount of bricks");
+        }
+        byte[] brickHitPoints = new byte[bricks];
+        in.readFully(brickHitPoints);
+        int balls = in.readInt();
+        if (balls < 0) {
+            throw new IllegalArgumentException("Corrupted snapshot, negative amount of balls");
+        }
+        double[] x = new double[balls], y = new double[balls], dx = new double[balls], dy = new double[balls];
+        int[] radius = new int[balls], color = new int[balls];
+        for (int i = 0; i < balls; i++) {
+            x[i] = in.readDouble();
+            y[i] = in.readDouble();
+            dx[i] = in.readDouble();
+            dy[i] = in.readDouble();
+            radius[i] = in.readInt();
+            color[i] = in.readInt();
+        }
+        return new GameSnapshot(tick, levelIndex, levelState, nextLevelState, score, paddleX, brickHitPoints,
+                x, y, dx, dy, radius, color);
+    }
+}
@@ -0,0 +1,40 @@
+package replay;
+
+/**
+ * Constants of the replay log format.
+ * A log starts with a header made of {@link #MAGIC}, {@link #VERSION}, the seed of the game and the settings that
+ * shape it (rows, balls, levels, first level and paddle zones), followed by records. Every record starts with a tag
+ * byte: a tag up to {@link #MAX_COMMANDS} is a run of ticks with the same input commands (the tag is the commands
+ * bitmask) followed by the length of the run as a variable length number, {@link #SNAPSHOT} is followed by the tick
+ * of the snapshot, its length and its content, and {@link #END} is followed by the total amount of ticks. Every value
+ * other than the run lengths is big endian.
+ * @author Yuval Anteby
+ */
+public final class ReplayFormat {
+    /**
+     * First bytes of every replay log ("ARKR").
+     */
+    public static final int MAGIC = 0x41524B52;
+    /**
+     * Version of the format written by {@link ReplayWriter}.
+     */
+    public static final int VERSION = 3;
+    /**
+     * Largest commands bitmask a run can hold, every {@link input.InputSource} flag together.
+     */
+    public static final int MAX_COMMANDS = 0x07;
+    /**
+     * Tag of a snapshot record.
+     */
+    public static final int SNAPSHOT = 0x40;
+    /**
+     * Tag of the last record of a log that was closed properly.
+     */
+    public static final int END = 0x7F;
+
+    /**
+     * Hidden constructor, the class only holds constants.
+     */
+    private ReplayFormat() {
+    }
+}
@@ -0,0 +1,245 @@
+package replay;
+
+import game.GameConfig;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class to hold a replay log that was read into memory (see {@link ReplayFormat}).
+ * The runs of commands are kept as they were recorded and the snapshots are only decoded when a replay seeks to them,
+ * so even a long session takes little memory. A log that ends without its end record is read up to its last run.
+ * @author Yuval Anteby
+ */
+public class ReplayLog {
+    private final long seed;
+    private final int rows;
+    private final int ballsAmount;
+    private final int levelsAmount;
+    private final int levelIndex;
+    private final int paddleZones;
+    //Tick after the end of every run, and the commands of the run.
+    private long[] runEnds = new long[16];
+    private byte[] runCommands = new byte[16];
+    private int runs;
+    private final List<Long> snapshotTicks = new ArrayList<>();
+    private final List<byte[]> snapshots = new ArrayList<>();
+
+    /**
+     * Constructor for the log, reads the whole input without closing it.
+     * @param input - input holding the log.
+     * @throws IOException - if the input can't be read.
+     */
+    public ReplayLog(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != ReplayFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a replay log");
+        }
+        int version = in.readInt();
+        if (version != ReplayFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported replay log version " + version);
+        }
+        this.seed = in.readLong();
+        this.rows = in.readInt();
+        this.ballsAmount = in.readInt();
+        this.levelsAmount = in.readInt();
+        this.levelIndex = in.readInt();
+        this.paddleZones = in.readInt();
+        readRecords(in);
+    }
+
+    /**
+     * Read a replay log from a file.
+     * @param path - file of the log.
+     * @return - the log.
+     * @throws IOException - if the file can't be read.
+     */
+    public static ReplayLog read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return new ReplayLog(in);
+        }
+    }
+
+    /**
+     * Read the records following the header, until the end record or the end of the input.
+     * @param in - input positioned after the header.
+     * @throws IOException - if the input can't be read.
+     */
+    private void readRecords(DataInputStream in) throws IOException {
+        while (true) {
+            int tag = in.read();
+            if (tag < 0) {
+                //The recording game didn't close the log, keep what was written.
+                return;
+            }
+            try {
+                if (tag <= ReplayFormat.MAX_COMMANDS) {
+                    addRun(tag, readLength(in));
+                } else if (tag == ReplayFormat.SNAPSHOT) {
+                    long tick = in.readLong();
+                    int length = in.readInt();
+                    if (length < 0) {
+                        throw new IllegalArgumentException("Corrupted replay log, negative snapshot length");
+                    }
+                    byte[] content = new byte[length];
+                    in.readFully(content);
+                    this.snapshotTicks.add(tick);
+                    this.snapshots.add(content);
+                } else if (tag == ReplayFormat.END) {
+                    if (in.readLong() != getTicks()) {
+                        throw new IllegalArgumentException("Corrupted replay log, the runs don't add up to the ticks");
+                    }
+                    return;
+                } else {
+                    throw new IllegalArgumentException("Corrupted replay log, unknown record " + tag);
+                }
+            } catch (EOFException e) {
+                //A record cut in the middle is dropped like the rest of an unclosed log.
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read the variable length of a run.
+     * @param in - input positioned at the length.
+     * @return - length of the run.
+     * @throws IOException - if the input can't be read.
+     */
+    private static long readLength(DataInputStream in) throws IOException {
+        long length = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return length;
+            }
+        }
+        throw new IllegalArgumentException("Corrupted replay log, run length is too long");
+    }
+
+    /**
+     * Add a run of commands after the last run.
+     * @param commands - commands of the run.
+     * @param length   - amount of ticks in the run.
+     */
+    private void addRun(int commands, long length) {
+        if (this.runs == this.runEnds.length) {
+            this.runEnds = Arrays.copyOf(this.runEnds, this.runs * 2);
+            this.runCommands = Arrays.copyOf(this.runCommands, this.runs * 2);
+        }
+        this.runEnds[this.runs] = getTicks() + length;
+        this.runCommands[this.runs] = (byte) commands;
+        this.runs++;
+    }
+
+    /**
+     * Getter for the seed of the recorded game's random source.
+     * @return - seed of the game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter for the amount of recorded ticks.
+     * @return - amount of ticks.
+     */
+    public long getTicks() {
+        return this.runs == 0 ? 0 : this.runEnds[this.runs - 1];
+    }
+
+    /**
+     * Getter for the amount of snapshots in the log.
+     * @return - amount of snapshots.
+     */
+    public int getSnapshotCount() {
+        return this.snapshots.size();
+    }
+
+    /**
+     * Copy the settings that shape the recorded game into a game's settings, so the game plays the same levels with
+     * the same balls. A level file or provider isn't recorded, it must be set the same way as in the recorded game.
+     * @param config - settings to be changed.
+     */
+    public void applyTo(GameConfig config) {
+        config.setSeed(this.seed);
+        config.setRows(this.rows);
+        config.setBallsAmount(this.ballsAmount);
+        config.setLevelsAmount(this.levelsAmount);
+        config.setLevelIndex(this.levelIndex);
+        config.setPaddleZones(this.paddleZones);
+    }
+
+    /**
+     * Find the run holding a tick.
+     * @param tick - index of the tick.
+     * @return - index of the run, the amount of runs if the tick is after the recording.
+     */
+    public int runAt(long tick) {
+        int low = 0, high = this.runs;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.runEnds[middle] <= tick) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Getter for the tick after the end of a run.
+     * @param run - index of the run.
+     * @return - tick after the run.
+     */
+    public long getRunEnd(int run) {
+        return this.runEnds[run];
+    }
+
+    /**
+     * Getter for the commands of a run.
+     * @param run - index of the run.
+     * @return - bitmask of {@link input.InputSource} flags.
+     */
+    public int getRunCommands(int run) {
+        return this.runCommands[run];
+    }
+
+    /**
+     * Getter for the amount of runs of commands.
+     * @return - amount of runs.
+     */
+    public int getRunCount() {
+        return this.runs;
+    }
+
+    /**
+     * Decode the last snapshot taken at or before a tick.
+     * @param tick - tick to seek to.
+     * @return - the snapshot, null if there is no snapshot before the tick.
+     */
+    public GameSnapshot snapshotBefore(long tick) {
+        GameSnapshot found = null;
+        for (int i = this.snapshotTicks.size() - 1; i >= 0 && found == null; i--) {
+            if (this.snapshotTicks.get(i) <= tick) {
+                try {
+                    found = GameSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(this.snapshots.get(i))));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Corrupted snapshot of tick " + this.snapshotTicks.get(i), e);
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,59 @@
+package replay;
+
+import game.Game;
+import game.GameConfig;
+import input.ReplayInput;
+import util.RandomSource;
+
+/**
+ * Class to play a recorded game again, headless and as fast as possible.
+ * A replay can start from any tick: the game is restored from the last snapshot before the tick and only the ticks
+ * after the snapshot are simulated, so seeking deep into a long session doesn't replay it from the start.
+ * @author Yuval Anteby
+ */
+public class ReplayPlayer {
+    private final ReplayLog log;
+    private final GameConfig config;
+
+    /**
+     * Constructor for the player. The settings are changed to match the recorded game: its seed, levels and balls,
+     * headless, without recording and ending after the last recorded tick.
+     * @param log    - recorded game.
+     * @param config - settings of the replayed games (E.G: the level file of the recorded game).
+     */
+    public ReplayPlayer(ReplayLog log, GameConfig config) {
+        if (log.getTicks() == 0) {
+            throw new IllegalArgumentException("Replay log has no recorded ticks");
+        }
+        this.log = log;
+        this.config = config;
+        log.applyTo(config);
+        config.setHeadless(true);
+        config.setRecordFile(null);
+        config.setMaxTicks(log.getTicks());
+    }
+
+    /**
+     * Create a game at a tick of the recording.
+     * @param tick - tick to seek to, between 0 and the amount of recorded ticks.
+     * @return - game that ran the given amount of ticks, ready to {@link Game#run()} the rest of the recording.
+     */
+    public Game seek(long tick) {
+        if (tick < 0 || tick > this.log.getTicks()) {
+            throw new IllegalArgumentException("Tick " + tick + " is out of the " + this.log.getTicks()
+                    + " recorded ticks");
+        }
+        GameSnapshot snapshot = this.log.snapshotBefore(tick);
+        long from = snapshot == null ? 0 : snapshot.getTick();
+        this.config.setInputSource(new ReplayInput(this.log, from));
+        Game game = new Game(this.config);
+        RandomSource random = new RandomSource(this.log.getSeed());
+        if (snapshot == null) {
+            game.initialize(random);
+        } else {
+            game.restore(random, snapshot);
+        }
+        game.advance(tick - from);
+        return game;
+    }
+}
@@ -0,0 +1,132 @@
+package replay;
+
+import game.GameConfig;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class to record a game into a replay log (see {@link ReplayFormat}).
+ * The log is only appended to: the commands of every tick are collected into runs of equal commands, and a run is
+ * written once the commands change or a snapshot is written. The output is flushed after every snapshot, so a log
+ * that wasn't closed (E.G: the game crashed) can still be replayed up to its last snapshot.
+ * @author Yuval Anteby
+ */
+public class ReplayWriter implements Closeable {
+    private final DataOutputStream out;
+    private int runCommands = -1;
+    private long runTicks;
+    private long ticks;
+
+    /**
+     * Constructor for the writer, writes the header of the log right away.
+     * @param output - output the log is written to, closed with the writer.
+     * @param seed   - seed of the game's random source.
+     * @param config - settings of the game, the ones that shape the game are stored in the header.
+     * @throws IOException - if the header can't be written.
+     */
+    public ReplayWriter(OutputStream output, long seed, GameConfig config) throws IOException {
+        this.out = new DataOutputStream(output);
+        this.out.writeInt(ReplayFormat.MAGIC);
+        this.out.writeInt(ReplayFormat.VERSION);
+        this.out.writeLong(seed);
+        this.out.writeInt(config.getRows());
+        this.out.writeInt(config.getBallsAmount());
+        this.out.writeInt(config.getLevelsAmount());
+        this.out.writeInt(config.getLevelIndex());
+        this.out.writeInt(config.getPaddleZones());
+    }
+
+    /**
+     * Create a writer recording into a file.
+     * @param path   - file to be written, replaced if it exists.
+     * @param seed   - seed of the game's random source.
+     * @param config - settings of the game.
+     * @return - new writer.
+     * @throws IOException - if the file can't be written.
+     */
+    public static ReplayWriter open(Path path, long seed, GameConfig config) throws IOException {
+        return new ReplayWriter(new BufferedOutputStream(Files.newOutputStream(path)), seed, config);
+    }
+
+    /**
+     * Getter for the amount of ticks recorded so far.
+     * @return - amount of ticks.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Record the commands of the next tick.
+     * @param commands - bitmask of {@link input.InputSource} flags.
+     * @throws IOException - if a finished run can't be written.
+     */
+    public void record(int commands) throws IOException {
+        if (commands < 0 || commands > ReplayFormat.MAX_COMMANDS) {
+            throw new IllegalArgumentException("Unknown commands " + commands);
+        }
+        if (commands != this.runCommands) {
+            writeRun();
+            this.runCommands = commands;
+        }
+        this.runTicks++;
+        this.ticks++;
+    }
+
+    /**
+     * Write a snapshot of the game after the ticks recorded so far, and flush everything written before it.
+     * @param snapshot - state of the game.
+     * @throws IOException - if the snapshot can't be written.
+     */
+    public void writeSnapshot(GameSnapshot snapshot) throws IOException {
+        writeRun();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        snapshot.writeTo(new DataOutputStream(content));
+        this.out.writeByte(ReplayFormat.SNAPSHOT);
+        this.out.writeLong(snapshot.getTick());
+        this.out.writeInt(content.size());
+        content.writeTo(this.out);
+        this.out.flush();
+    }
+
+    /**
+     * Write the last run and the end of the log, then close the output.
+     * @throws IOException - if the log can't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeRun();
+            this.out.writeByte(ReplayFormat.END);
+            this.out.writeLong(this.ticks);
+        } finally {
+            this.out.close();
+        }
+    }
+
+    /**
+     * Write the current run of commands, if it has any ticks.
+     * @throws IOException - if the run can't be written.
+     */
+    private void writeRun() throws IOException {
+        if (this.runTicks == 0) {
+            return;
+        }
+        this.out.writeByte(this.runCommands);
+        //Seven bits of the length per byte, the top bit marks that more bytes follow.
+        long length = this.runTicks;
+        while ((length & ~0x7FL) != 0) {
+            this.out.writeByte((int) (length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        this.out.writeByte((int) length);
+        this.runTicks = 0;
+    }
+}
@@ -42,7 +42,8 @@ public class ScoreIndicator implements Sprite {
         d.setColor(Constants.SCORE_BACKGROUND_COLOR);
         d.fillRectangle(Constants.TOP_LEFT_X, Constants.TOP_LEFT_Y, Constants.SCORE_WIDTH, Constants.SCORE_FONT_SIZE);
         d.setColor(Constants.TEXT_COLOR);
-        String scoreText = "Score: " + this.scoreCounter.toString();
+        //Read through a snapshot, the score might be updated by other threads while the frame is drawn.
+        String scoreText = "Score: " + this.scoreCounter.snapshot();
         d.drawText(Constants.TEXT_LOCATION_X, Constants.TEXT_LOCATION_Y, scoreText, Constants.SCORE_FONT_SIZE);
     }
 
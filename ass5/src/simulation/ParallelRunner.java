@@ -0,0 +1,144 @@
+package simulation;
+
+import game.Game;
+import game.GameConfig;
+import util.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Class to run many independent headless games side by side on a fork-join pool.
+ * Every game owns its environment, sprites, counters and random generator, so games don't share any mutable state
+ * other than the palette's cache of color objects, which doesn't take locks, and the batch scales with the amount of
+ * cores.
+ * @author Yuval Anteby
+ */
+public class ParallelRunner {
+    private final int parallelism;
+
+    /**
+     * Default constructor, uses every available core.
+     */
+    public ParallelRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the runner.
+     * @param parallelism - amount of games to run at the same time, must be positive.
+     */
+    public ParallelRunner(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Run a game for every seed, using the same settings for all of them.
+     * @param seeds    - seeds of the games, one game per seed.
+     * @param maxTicks - limit on the amount of ticks of every game, must be positive since the AI might never lose.
+     * @return - summary of the batch.
+     */
+    public SimulationSummary run(long[] seeds, long maxTicks) {
+        List<GameConfig> configs = new ArrayList<>(seeds.length);
+        for (long seed : seeds) {
+            GameConfig config = new GameConfig();
+            config.setSeed(seed);
+            config.setMaxTicks(maxTicks);
+            configs.add(config);
+        }
+        return run(configs);
+    }
+
+    /**
+     * Run games whose random values are split off a single source, every game gets a stream of its own.
+     * The batch is reproduced by running it again from a source in the same state.
+     * @param source   - source the streams of the games are split off.
+     * @param games    - amount of games, must not be negative.
+     * @param maxTicks - limit on the amount of ticks of every game, must be positive since the AI might never lose.
+     * @return - summary of the batch, the seed of a game's result is the seed of its split source.
+     */
+    public SimulationSummary run(RandomSource source, int games, long maxTicks) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Amount of games can't be negative");
+        }
+        List<GameConfig> configs = new ArrayList<>(games);
+        List<RandomSource> sources = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            RandomSource split = source.split();
+            GameConfig config = new GameConfig();
+            config.setSeed(split.getSeed());
+            config.setMaxTicks(maxTicks);
+            configs.add(config);
+            sources.add(split);
+        }
+        return run(configs, sources);
+    }
+
+    /**
+     * Run a game for every configuration. Every configuration is switched to headless and quiet mode.
+     * @param configs - settings of the games, a configuration must not be shared between games.
+     * @return - summary of the batch.
+     */
+    public SimulationSummary run(List<GameConfig> configs) {
+        List<RandomSource> sources = new ArrayList<>(configs.size());
+        for (GameConfig config : configs) {
+            sources.add(new RandomSource(config.getSeed()));
+        }
+        return run(configs, sources);
+    }
+
+    /**
+     * Run a game for every configuration, switching every configuration to headless and quiet mode.
+     * @param configs - settings of the games, a configuration must not be shared between games.
+     * @param sources - source of the random values of every game, in the order of the configurations.
+     * @return - summary of the batch.
+     */
+    private SimulationSummary run(List<GameConfig> configs, List<RandomSource> sources) {
+        List<Callable<SimulationResult>> tasks = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            GameConfig config = configs.get(i);
+            RandomSource random = sources.get(i);
+            config.setHeadless(true);
+            config.setVerbose(false);
+            tasks.add(() -> play(config, random));
+        }
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        long start = System.nanoTime();
+        try {
+            List<SimulationResult> results = new ArrayList<>(tasks.size());
+            for (Future<SimulationResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return new SimulationSummary(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Play a single headless game to the end.
+     * @param config - settings of the game.
+     * @param random - source of the random values of the game.
+     * @return - result of the game.
+     */
+    private static SimulationResult play(GameConfig config, RandomSource random) {
+        long start = System.nanoTime();
+        Game game = new Game(config);
+        game.initialize(random);
+        game.run();
+        return new SimulationResult(config.getSeed(), game.getScore(), game.getRemainingBlocks(),
+                game.getRemainingBalls(), game.getTickCount(), System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,94 @@
+package simulation;
+
+/**
+ * Class to hold the outcome of a single headless game.
+ * @author Yuval Anteby
+ */
+public class SimulationResult {
+    private final long seed;
+    private final int score;
+    private final int remainingBlocks;
+    private final int remainingBalls;
+    private final long ticks;
+    private final long nanos;
+
+    /**
+     * Constructor for the result.
+     * @param seed            - seed the game was created with.
+     * @param score           - score at the end of the game.
+     * @param remainingBlocks - amount of blocks left at the end of the game.
+     * @param remainingBalls  - amount of balls left at the end of the game.
+     * @param ticks           - amount of ticks the game ran.
+     * @param nanos           - time it took to run the game in nanoseconds.
+     */
+    public SimulationResult(long seed, int score, int remainingBlocks, int remainingBalls, long ticks, long nanos) {
+        this.seed = seed;
+        this.score = score;
+        this.remainingBlocks = remainingBlocks;
+        this.remainingBalls = remainingBalls;
+        this.ticks = ticks;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Getter for the seed of the game.
+     * @return - seed of the game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter for the score at the end of the game.
+     * @return - final score.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Getter for the amount of blocks left at the end of the game.
+     * @return - amount of remaining blocks.
+     */
+    public int getRemainingBlocks() {
+        return this.remainingBlocks;
+    }
+
+    /**
+     * Getter for the amount of balls left at the end of the game.
+     * @return - amount of remaining balls.
+     */
+    public int getRemainingBalls() {
+        return this.remainingBalls;
+    }
+
+    /**
+     * Getter for the amount of ticks the game ran.
+     * @return - amount of ticks.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Getter for the time it took to run the game.
+     * @return - time in nanoseconds.
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Check if the player cleared every block.
+     * @return - true if the game was won, otherwise false.
+     */
+    public boolean isWon() {
+        return this.remainingBlocks <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Seed " + this.seed + ": score " + this.score + ", " + this.remainingBlocks + " blocks and "
+                + this.remainingBalls + " balls left after " + this.ticks + " ticks";
+    }
+}
@@ -0,0 +1,129 @@
+package simulation;
+
+import java.util.List;
+
+/**
+ * Class to aggregate the results of a batch of games.
+ * @author Yuval Anteby
+ */
+public class SimulationSummary {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final int games;
+    private final int wins;
+    private final int minScore;
+    private final int maxScore;
+    private final double averageScore;
+    private final double averageRemainingBlocks;
+    private final double averageRemainingBalls;
+    private final long totalTicks;
+    private final long wallNanos;
+
+    /**
+     * Constructor for the summary.
+     * @param results   - results of every game in the batch.
+     * @param wallNanos - wall clock time it took to run the whole batch in nanoseconds.
+     */
+    public SimulationSummary(List<SimulationResult> results, long wallNanos) {
+        int won = 0, min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        long scores = 0, blocks = 0, balls = 0, ticks = 0;
+        for (SimulationResult result : results) {
+            won += result.isWon() ? 1 : 0;
+            min = Math.min(min, result.getScore());
+            max = Math.max(max, result.getScore());
+            scores += result.getScore();
+            blocks += result.getRemainingBlocks();
+            balls += result.getRemainingBalls();
+            ticks += result.getTicks();
+        }
+        this.games = results.size();
+        this.wins = won;
+        this.minScore = this.games == 0 ? 0 : min;
+        this.maxScore = this.games == 0 ? 0 : max;
+        this.averageScore = this.games == 0 ? 0 : scores / (double) this.games;
+        this.averageRemainingBlocks = this.games == 0 ? 0 : blocks / (double) this.games;
+        this.averageRemainingBalls = this.games == 0 ? 0 : balls / (double) this.games;
+        this.totalTicks = ticks;
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Getter for the amount of games in the batch.
+     * @return - amount of games.
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * Getter for the amount of games where every block was cleared.
+     * @return - amount of won games.
+     */
+    public int getWins() {
+        return this.wins;
+    }
+
+    /**
+     * Getter for the lowest score in the batch.
+     * @return - lowest score.
+     */
+    public int getMinScore() {
+        return this.minScore;
+    }
+
+    /**
+     * Getter for the highest score in the batch.
+     * @return - highest score.
+     */
+    public int getMaxScore() {
+        return this.maxScore;
+    }
+
+    /**
+     * Getter for the average score in the batch.
+     * @return - average score.
+     */
+    public double getAverageScore() {
+        return this.averageScore;
+    }
+
+    /**
+     * Getter for the average amount of blocks left at the end of a game.
+     * @return - average amount of remaining blocks.
+     */
+    public double getAverageRemainingBlocks() {
+        return this.averageRemainingBlocks;
+    }
+
+    /**
+     * Getter for the average amount of balls left at the end of a game.
+     * @return - average amount of remaining balls.
+     */
+    public double getAverageRemainingBalls() {
+        return this.averageRemainingBalls;
+    }
+
+    /**
+     * Getter for the amount of ticks simulated by all the games together.
+     * @return - total amount of ticks.
+     */
+    public long getTotalTicks() {
+        return this.totalTicks;
+    }
+
+    /**
+     * Getter for the throughput of the whole batch.
+     * @return - ticks simulated per second of wall clock time.
+     */
+    public double getTicksPerSecond() {
+        return this.wallNanos <= 0 ? 0 : this.totalTicks * NANOS_PER_SECOND / this.wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games, %d won, score min %d / avg %.1f / max %d, avg %.1f blocks and %.1f balls "
+                        + "left, %d ticks in %.1f ms (%.0f ticks per second).", this.games, this.wins, this.minScore,
+                this.averageScore, this.maxScore, this.averageRemainingBlocks, this.averageRemainingBalls,
+                this.totalTicks, this.wallNanos / 1_000_000.0, getTicksPerSecond());
+    }
+}
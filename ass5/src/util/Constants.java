@@ -16,6 +16,8 @@ public class Constants {
     public static final int PADDLE_WIDTH = 80, PADDLE_HEIGHT = 7;
     //Sensitivity of the paddle's movement. The bigger the number the faster it'll move.
     public static final int MOVEMENT_SENSITIVITY = 8;
+    //Amount of zones on the paddle's top, and the angle from straight up of the zones on its edges (in degrees).
+    public static final int PADDLE_ZONES = 5, PADDLE_MAX_ANGLE = 60;
 
     /**
         GUI constants.
@@ -27,6 +29,18 @@ public class Constants {
     //GUI name.
     public static final String GUI_NAME = "Arkanoid";
 
+    /**
+        Game loop constants.
+     */
+    //Physics ticks per second and rendered frames per second.
+    public static final int TICKS_PER_SECOND = 60, FRAMES_PER_SECOND = 60;
+    //Most physics ticks to run between two frames, and most frames to skip in a row while the physics is behind.
+    public static final int MAX_TICKS_PER_FRAME = 5, MAX_FRAME_SKIP = 5;
+    //Ticks between two snapshots of a recorded game, a replay seeks to the last snapshot before the requested tick.
+    public static final int SNAPSHOT_INTERVAL = 10_000;
+    //Samples per second of the keyboard, taken on a thread of their own so the game's thread doesn't wait for it.
+    public static final int INPUT_SAMPLE_RATE = 1000;
+
     /**
         Boundaries constants.
      */
@@ -56,6 +70,16 @@ public class Constants {
     public static final int MIN_Y = BOUNDS_HEIGHT + DEFAULT_RADIUS + (NUM_OF_ROWS + 3) * BLOCK_HEIGHT;
     public static final int MAX_Y = GUI_HEIGHT - BOUNDS_HEIGHT - DEFAULT_RADIUS - PADDLE_HEIGHT;
 
+    /**
+        Collision constants.
+     */
+    //Size of the cells of the collision grid, about the size of a block.
+    public static final int GRID_CELL_SIZE = 50;
+    //Maximum amount of collisions a ball resolves in a single step.
+    public static final int MAX_COLLISION_ITERATIONS = 4;
+    //Amount of hit events queued in a tick before the event buffer has to grow.
+    public static final int EVENT_QUEUE_CAPACITY = 256;
+
     /**
      * Score indicator constants.
      */
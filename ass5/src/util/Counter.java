@@ -1,45 +1,35 @@
 package util;
 
 /**
- * Class to count simple things.
+ * Interface to count simple things.
  * @author Yuval Anteby
  */
-public class Counter {
-    private int count;
-
-    /**
-     * Default constructor to set the count at 0.
-     */
-    public Counter() {
-        this.count = 0;
-    }
+public interface Counter {
 
     /**
      * Increase the count value.
      * @param number - number increase the counter by.
      */
-    public void increase(int number) {
-        this.count += number;
-    }
+    void increase(int number);
 
     /**
      * Decrease the count value.
      * @param number - number to decrease the counter by.
      */
-    public void decrease(int number) {
-        this.count -= number;
-    }
+    void decrease(int number);
 
     /**
      * Getter for the value of the count.
      * @return - int value of the counter.
      */
-    public int getValue() {
-        return this.count;
-    }
+    int getValue();
 
-    @Override
-    public String toString() {
-        return String.valueOf(this.count);
+    /**
+     * Read the value from a thread that doesn't update the counter (E.G: the render thread), without blocking the
+     * threads that do. Updates made at the same time might not be counted yet.
+     * @return - recent value of the counter.
+     */
+    default int snapshot() {
+        return getValue();
     }
 }
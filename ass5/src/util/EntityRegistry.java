@@ -0,0 +1,157 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered collection of game objects with constant time removal.
+ * Every object gets a slot, removing an object only leaves an empty slot (a tombstone) behind, so the slots of the
+ * other objects don't move and a loop over the slots stays correct while objects are removed. The empty slots are
+ * dropped by {@link #compact()}, which keeps the order of the remaining objects and is meant to run at the end of a
+ * tick. Objects are compared by identity and can't be added twice.
+ * @param <T> - type of the objects.
+ * @author Yuval Anteby
+ */
+public class EntityRegistry<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Map<T, Slot> slots = new IdentityHashMap<>();
+    private Object[] items = new Object[DEFAULT_CAPACITY];
+    private int end;
+    private int tombstones;
+
+    /**
+     * Add an object after every other object.
+     * @param item - object to be added.
+     * @return - true if the object was added, false if it's null or already in the registry.
+     */
+    public boolean add(T item) {
+        if (item == null || this.slots.containsKey(item)) {
+            return false;
+        }
+        if (this.end == this.items.length) {
+            this.items = Arrays.copyOf(this.items, this.items.length * 2);
+        }
+        this.items[this.end] = item;
+        this.slots.put(item, new Slot(this.end));
+        this.end++;
+        return true;
+    }
+
+    /**
+     * Remove an object, leaving its slot empty until the next compaction.
+     * @param item - object to be removed.
+     * @return - true if the object was in the registry, otherwise false.
+     */
+    public boolean remove(T item) {
+        Slot slot = item == null ? null : this.slots.remove(item);
+        if (slot == null) {
+            return false;
+        }
+        this.items[slot.index] = null;
+        this.tombstones++;
+        return true;
+    }
+
+    /**
+     * Check if an object is in the registry.
+     * @param item - object to look for.
+     * @return - true if the object is in the registry, otherwise false.
+     */
+    public boolean contains(T item) {
+        return item != null && this.slots.containsKey(item);
+    }
+
+    /**
+     * Get the amount of objects in the registry.
+     * @return - amount of objects, not counting empty slots.
+     */
+    public int size() {
+        return this.end - this.tombstones;
+    }
+
+    /**
+     * Check if the registry has no objects.
+     * @return - true if there are no objects, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get the amount of slots, loops should go over the slots from 0 up to this value (checked on every iteration so
+     * objects added during the loop are visited too).
+     * @return - amount of slots including the empty ones.
+     */
+    public int slotCount() {
+        return this.end;
+    }
+
+    /**
+     * Get the object in a slot.
+     * @param slot - index of the slot, between 0 and {@link #slotCount()}.
+     * @return - the object, null if the slot is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) this.items[slot];
+    }
+
+    /**
+     * Drop the empty slots, keeping the order of the objects. Must not be called while looping over the slots.
+     */
+    @SuppressWarnings("unchecked")
+    public void compact() {
+        if (this.tombstones == 0) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < this.end; i++) {
+            Object item = this.items[i];
+            if (item == null) {
+                continue;
+            }
+            if (next != i) {
+                this.items[next] = item;
+                this.slots.get((T) item).index = next;
+            }
+            next++;
+        }
+        Arrays.fill(this.items, next, this.end, null);
+        this.end = next;
+        this.tombstones = 0;
+    }
+
+    /**
+     * Copy the objects into a new list.
+     * @return - list of the objects in their order.
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(size());
+        for (int i = 0; i < this.end; i++) {
+            T item = get(i);
+            if (item != null) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Index of an object's slot, updated when the registry is compacted.
+     */
+    private static final class Slot {
+        private int index;
+
+        /**
+         * Constructor for the slot.
+         * @param index - index of the slot.
+         */
+        private Slot(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package util;
+
+/**
+ * Counter backed by a plain int, for counters updated by a single thread.
+ * @author Yuval Anteby
+ */
+public class IntCounter implements Counter {
+    private int count;
+
+    /**
+     * Default constructor to set the count at 0.
+     */
+    public IntCounter() {
+        this.count = 0;
+    }
+
+    @Override
+    public void increase(int number) {
+        this.count += number;
+    }
+
+    @Override
+    public void decrease(int number) {
+        this.count -= number;
+    }
+
+    @Override
+    public int getValue() {
+        return this.count;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.count);
+    }
+}
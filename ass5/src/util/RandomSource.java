@@ -0,0 +1,184 @@
+package util;
+
+/**
+ * Class to generate the random values of a game from a single seed.
+ * A game owns one source and passes it to everything that needs random values, so a run can be reproduced from its
+ * seed and games running side by side never contend on a shared generator.
+ * The values are the same as {@link java.util.SplittableRandom} with the same seed, and {@link #split()} derives a
+ * child stream the same way, so games running side by side (E.G: a batch) each get a stream of their own from a single
+ * source. Unlike {@link java.util.SplittableRandom}, the position of the generator in its stream is a single long that
+ * can be saved and restored (E.G: in a snapshot of a recorded game).
+ * @author Yuval Anteby
+ */
+public class RandomSource {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+    //Amount the state advances by on every value, odd. Sources created from a seed use the golden gamma.
+    private final long gamma;
+    private long state;
+
+    /**
+     * Constructor for the source.
+     * @param seed - seed of the source, sources with the same seed generate the same values.
+     */
+    public RandomSource(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Constructor for a source with a stream of its own.
+     * @param seed  - seed of the source.
+     * @param gamma - amount the state advances by on every value, odd.
+     */
+    private RandomSource(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+        this.state = seed;
+    }
+
+    /**
+     * Split a new source off this one. The new source generates values that don't overlap the values of this source
+     * or of the other sources split off it, and splitting a source in the same state always gives the same source.
+     * @return - new source with a stream of its own.
+     */
+    public RandomSource split() {
+        return new RandomSource(nextLong(), mixGamma(nextState()));
+    }
+
+    /**
+     * Getter for the seed the source was created with.
+     * @return - seed of the source.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Getter for the current state of the generator.
+     * @return - state that continues the same values when passed to {@link #setState(long)} of this source, or of a
+     * source created from the same seed.
+     */
+    public long getState() {
+        return this.state;
+    }
+
+    /**
+     * Move the generator to a state saved earlier, the next values are the ones that followed that state.
+     * @param newState - state returned by {@link #getState()}.
+     */
+    public void setState(long newState) {
+        this.state = newState;
+    }
+
+    /**
+     * Generate a random integer between 0 (inclusive) and a bound (exclusive).
+     * @param bound - upper bound, must be positive.
+     * @return - random integer.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        return bounded(nextInt(), 0, bound);
+    }
+
+    /**
+     * Generate a random integer in a range.
+     * @param min - min value (inclusive).
+     * @param max - max value (inclusive).
+     * @return - random integer between min and max.
+     */
+    public int nextInt(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Min must not be greater than max");
+        }
+        int r = nextInt();
+        if (max == Integer.MAX_VALUE) {
+            //The range has no exclusive bound that fits an int.
+            while (r < min) {
+                r = nextInt();
+            }
+            return r;
+        }
+        return bounded(r, min, max + 1);
+    }
+
+    /**
+     * Generate a random double between 0 (inclusive) and 1 (exclusive).
+     * @return - random double.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Generate a random long, used to seed other sources (E.G: one per game of a batch).
+     * @return - random long.
+     */
+    public long nextLong() {
+        long z = nextState();
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generate a random integer out of all the int values.
+     * @return - random integer.
+     */
+    private int nextInt() {
+        long z = nextState();
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Advance the generator.
+     * @return - the new state.
+     */
+    private long nextState() {
+        this.state += this.gamma;
+        return this.state;
+    }
+
+    /**
+     * Create the gamma of a split source out of a random value, an odd number with enough changing bits.
+     * @param z - random value.
+     * @return - gamma of the new source.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        //A gamma with too few transitions between its bits gives poorly mixed values.
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    /**
+     * Map a random integer into a range without bias, drawing more values when needed.
+     * @param r      - first random integer.
+     * @param origin - lower bound (inclusive).
+     * @param bound  - upper bound (exclusive), greater than the origin.
+     * @return - random integer in the range.
+     */
+    private int bounded(int r, int origin, int bound) {
+        int n = bound - origin, m = n - 1;
+        if ((n & m) == 0) {
+            return (r & m) + origin;
+        }
+        if (n > 0) {
+            for (int u = r >>> 1; u + m - (r = u % n) < 0; u = nextInt() >>> 1) {
+                //Reject the values of the last partial range.
+            }
+            return r + origin;
+        }
+        //The range is wider than the positive ints.
+        while (r < origin || r >= bound) {
+            r = nextInt();
+        }
+        return r;
+    }
+}
@@ -0,0 +1,39 @@
+package util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe counter for counters updated by several threads at once (E.G: the score of a parallel simulation).
+ * Backed by a {@link LongAdder}, which spreads contended updates over several cells instead of taking a lock, so
+ * updating from many threads scales. Reading sums the cells, the value is exact once the updates are over.
+ * @author Yuval Anteby
+ */
+public class StripedCounter implements Counter {
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void increase(int number) {
+        this.count.add(number);
+    }
+
+    @Override
+    public void decrease(int number) {
+        this.count.add(-number);
+    }
+
+    @Override
+    public int getValue() {
+        return this.count.intValue();
+    }
+
+    @Override
+    public int snapshot() {
+        //Summing the cells doesn't lock them, updates made during the sum may or may not be included.
+        return this.count.intValue();
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(getValue());
+    }
+}